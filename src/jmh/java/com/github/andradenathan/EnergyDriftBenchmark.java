@@ -0,0 +1,106 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Energy drift against CPU time for the Euler {@code Lagrange.integrate} path and the canonical symplectic
+ * integrators, as {@code integrator:dt}. The score is nanoseconds per step; one run keeps stepping the same
+ * pendulum through warmup and measurement, and its end prints the simulated time covered and the worst energy
+ * error reached, relative to the energy scale (m1 + m2) g L1 + m2 g L2 so that states with total energy close
+ * to zero are not penalized. The bounded drift itself is asserted in {@code HamiltonianTest}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnergyDriftBenchmark {
+    private static final int CHUNK = 1000;
+
+    @Param({"euler:0.01", "euler:0.001", "stormer-verlet:0.05", "stormer-verlet:0.1", "yoshida4:0.1",
+            "yoshida4:0.2"})
+    public String method;
+
+    private double timeStep;
+    private double scale;
+    private double initialEnergy;
+    private Lagrange lagrange;
+    private Speed speed;
+    private Hamiltonian hamiltonian;
+    private SymplecticIntegrator integrator;
+    private double[] state;
+    private long steps;
+    private double maxError;
+
+    @Setup
+    public void setUp() {
+        Arguments arguments = Arguments.usingDefault();
+        Speed initialSpeed = Speed.usingAngles(120, -10);
+        String[] parts = method.split(":");
+        timeStep = Double.parseDouble(parts[1]);
+        scale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1()
+                + arguments.mass2() * arguments.gravity() * arguments.length2();
+
+        switch (parts[0]) {
+            case "euler" -> {
+                lagrange = new Lagrange(arguments);
+                speed = initialSpeed.copy();
+                initialEnergy = lagrange.calculateEnergy(speed);
+            }
+            case "stormer-verlet", "yoshida4" -> {
+                integrator = parts[0].equals("yoshida4") ? new YoshidaIntegrator() : new StormerVerletIntegrator();
+                hamiltonian = new Hamiltonian(arguments);
+                state = new double[4];
+                hamiltonian.toCanonical(initialSpeed, state);
+                initialEnergy = hamiltonian.calculateEnergy(state);
+            }
+            default -> throw new IllegalArgumentException("Unknown method: " + method);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s: %d steps, %.0f s simulated, max |dE|/scale %.3e%n",
+                method, steps, steps * timeStep, maxError);
+    }
+
+    /**
+     * Runs {@value #CHUNK} steps and then measures the energy error, as checking every step would cost more
+     * than the Euler step itself.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public double chunk() {
+        double energy;
+        if (integrator == null) {
+            for (int i = 0; i < CHUNK; i++) {
+                lagrange.integrate(speed, timeStep);
+            }
+            energy = lagrange.calculateEnergy(speed);
+        } else {
+            for (int i = 0; i < CHUNK; i++) {
+                integrator.step(hamiltonian, state, timeStep);
+            }
+            energy = hamiltonian.calculateEnergy(state);
+        }
+
+        steps += CHUNK;
+        maxError = Math.max(maxError, Math.abs(energy - initialEnergy) / scale);
+        return energy;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nanoseconds per pendulum-step of the ensemble kernels on one thread, next to the scalar
+ * {@code Lagrange.integrate} path ({@code lagrange}). Every invocation runs {@value #PENDULUM_STEPS}
+ * pendulum-steps, so small ensembles take many steps per call and stay in cache while the largest takes one
+ * step over arrays that do not. The vector kernel needs {@code --add-modules jdk.incubator.vector}, which the
+ * {@code jmh} profile passes on; run it on the target host (AVX2 or AVX-512).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnsembleKernelBenchmark {
+    private static final int PENDULUM_STEPS = 1 << 20;
+
+    @Param({"lagrange", "scalar", "vector"})
+    public String kernel;
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private double timeStep;
+    private int steps;
+    private EnsembleKernel ensembleKernel;
+    private Lagrange lagrange;
+    private Speed[] speeds;
+    private double[] theta1;
+    private double[] theta2;
+    private double[] omega1;
+    private double[] omega2;
+
+    @Setup
+    public void setUp() {
+        if (PENDULUM_STEPS % size != 0) {
+            throw new IllegalArgumentException("Size must divide " + PENDULUM_STEPS + ": " + size);
+        }
+        Arguments arguments = Arguments.usingDefault();
+        timeStep = Simulation.accurate().getTimeStep();
+        steps = PENDULUM_STEPS / size;
+
+        if (kernel.equals("lagrange")) {
+            lagrange = new Lagrange(arguments);
+            speeds = new Speed[size];
+            for (int i = 0; i < size; i++) {
+                speeds[i] = new Speed(Math.PI / 2 + i * 1e-6, Math.PI / 3, 0.0, 0.0);
+            }
+            return;
+        }
+
+        ensembleKernel = EnsembleKernel.fromName(kernel, arguments);
+        theta1 = new double[size];
+        theta2 = new double[size];
+        omega1 = new double[size];
+        omega2 = new double[size];
+        for (int i = 0; i < size; i++) {
+            theta1[i] = Math.PI / 2 + i * 1e-6;
+            theta2[i] = Math.PI / 3;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PENDULUM_STEPS)
+    public Object advance() {
+        if (ensembleKernel == null) {
+            for (Speed speed : speeds) {
+                for (int step = 0; step < steps; step++) {
+                    lagrange.integrate(speed, timeStep);
+                }
+            }
+            return speeds;
+        }
+
+        ensembleKernel.advance(theta1, theta2, omega1, omega2, 0, size, steps, timeStep);
+        return theta1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends records to a fresh recording per iteration, so the numbers include mapping new segments and
+ * the page faults of touching them for the first time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightRecorderBenchmark {
+    private Path file;
+    private FlightRecorder recorder;
+    private double time;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("flight-recorder", ".dpfr");
+        recorder = new FlightRecorder(file, Arguments.usingDefault(), Simulation.usingDefault());
+        time = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        recorder.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void record() throws IOException {
+        time += 0.05;
+        recorder.record(time, time, -time, 0.5 * time, -0.5 * time, 2 * time);
+    }
+}
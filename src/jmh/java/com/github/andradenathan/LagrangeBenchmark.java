@@ -0,0 +1,76 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LagrangeBenchmark {
+    private Lagrange lagrange;
+    private Speed speed;
+    private double[] state;
+    private double[] accelerations;
+    private double timeStep;
+
+    @Setup
+    public void setUp() {
+        lagrange = new Lagrange(Arguments.usingDefault());
+        speed = Speed.usingAngles(120, -10);
+        state = new double[]{speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2()};
+        accelerations = new double[2];
+        timeStep = Simulation.accurate().getTimeStep();
+    }
+
+    @Benchmark
+    public double[] calculateAccelerations() {
+        return lagrange.calculateAccelerations(speed);
+    }
+
+    @Benchmark
+    public double[] calculateAccelerationsInto() {
+        lagrange.calculateAccelerations(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2(),
+                accelerations);
+        return accelerations;
+    }
+
+    @Benchmark
+    public Speed integrate() {
+        lagrange.integrate(speed, timeStep);
+        return speed;
+    }
+
+    @Benchmark
+    public double[] integrateState() {
+        lagrange.integrate(state, timeStep);
+        return state;
+    }
+
+    @Benchmark
+    public double calculateEnergy() {
+        return lagrange.calculateEnergy(speed);
+    }
+
+    @Benchmark
+    public double calculateLagrange() {
+        return lagrange.calculateLagrange(speed);
+    }
+
+    @Benchmark
+    public Speed copySpeed() {
+        return speed.copy();
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nanoseconds per Euler step and per energy evaluation, for {@link LagrangeKernel} and for the per-call
+ * formulas {@link Lagrange} used before it ({@code reference*}), which read every {@link Arguments} field on
+ * each call and evaluate seven sin/cos calls per step. The {@code fast*} variants use {@link TrigMode#FAST}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LagrangeKernelBenchmark {
+    private Arguments arguments;
+    private LagrangeKernel kernel;
+    private LagrangeKernel fastKernel;
+    private double[] state;
+    private double[] accelerations;
+    private double timeStep;
+
+    @Setup
+    public void setUp() {
+        arguments = Arguments.usingDefault();
+        kernel = new LagrangeKernel(arguments);
+        fastKernel = new LagrangeKernel(arguments, TrigMode.FAST);
+        state = new double[]{Math.toRadians(120), Math.toRadians(-10), 0.0, 0.0};
+        accelerations = new double[2];
+        timeStep = Simulation.accurate().getTimeStep();
+    }
+
+    @Benchmark
+    public double[] referenceStep() {
+        referenceAccelerations(arguments, state[0], state[1], state[2], state[3], accelerations);
+        return euler();
+    }
+
+    @Benchmark
+    public double[] kernelStep() {
+        kernel.accelerations(state[0], state[1], state[2], state[3], accelerations);
+        return euler();
+    }
+
+    @Benchmark
+    public double[] fastKernelStep() {
+        fastKernel.accelerations(state[0], state[1], state[2], state[3], accelerations);
+        return euler();
+    }
+
+    @Benchmark
+    public double referenceEnergy() {
+        return referenceEnergy(arguments, state[0], state[1], state[2], state[3]);
+    }
+
+    @Benchmark
+    public double kernelEnergy() {
+        return kernel.energy(state[0], state[1], state[2], state[3]);
+    }
+
+    @Benchmark
+    public double fastKernelEnergy() {
+        return fastKernel.energy(state[0], state[1], state[2], state[3]);
+    }
+
+    @Benchmark
+    public double referenceStepWithEnergy() {
+        double energy = referenceEnergy(arguments, state[0], state[1], state[2], state[3]);
+        referenceAccelerations(arguments, state[0], state[1], state[2], state[3], accelerations);
+        euler();
+        return energy;
+    }
+
+    @Benchmark
+    public double fusedStepWithEnergy() {
+        double energy = kernel.accelerationsAndEnergy(state[0], state[1], state[2], state[3], accelerations);
+        euler();
+        return energy;
+    }
+
+    @Benchmark
+    public double fastFusedStepWithEnergy() {
+        double energy = fastKernel.accelerationsAndEnergy(state[0], state[1], state[2], state[3], accelerations);
+        euler();
+        return energy;
+    }
+
+    private double[] euler() {
+        state[2] += accelerations[0] * timeStep;
+        state[3] += accelerations[1] * timeStep;
+        state[0] += state[2] * timeStep;
+        state[1] += state[3] * timeStep;
+        return state;
+    }
+
+    private static void referenceAccelerations(Arguments arguments, double theta1, double theta2,
+                                               double omega1, double omega2, double[] accelerations) {
+        double mass1 = arguments.mass1();
+        double mass2 = arguments.mass2();
+        double length1 = arguments.length1();
+        double length2 = arguments.length2();
+        double gravity = arguments.gravity();
+
+        double delta = theta1 - theta2;
+        double cosDelta = Math.cos(delta);
+        double sinDelta = Math.sin(delta);
+
+        double numerator1 = -gravity * (2 * mass1 + mass2) * Math.sin(theta1)
+                - mass2 * gravity * Math.sin(theta1 - 2 * theta2)
+                - 2 * sinDelta * mass2 * (omega2 * omega2 * length2
+                + omega1 * omega1 * length1 * cosDelta);
+
+        double numerator2 = 2 * sinDelta * (omega1 * omega1 * length1 * (mass1 + mass2)
+                + gravity * (mass1 + mass2) * Math.cos(theta1)
+                + omega2 * omega2 * length2 * mass2 * cosDelta);
+
+        double denominator1 = length1 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * delta));
+        double denominator2 = length2 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * delta));
+
+        accelerations[0] = numerator1 / denominator1;
+        accelerations[1] = numerator2 / denominator2;
+    }
+
+    private static double referenceEnergy(Arguments arguments, double theta1, double theta2,
+                                          double omega1, double omega2) {
+        double mass1 = arguments.mass1();
+        double mass2 = arguments.mass2();
+        double length1 = arguments.length1();
+        double length2 = arguments.length2();
+        double gravity = arguments.gravity();
+
+        double y1 = -length1 * Math.cos(theta1);
+        double y2 = y1 - length2 * Math.cos(theta2);
+
+        double xSpeed1 = length1 * omega1 * Math.cos(theta1);
+        double ySpeed1 = length1 * omega1 * Math.sin(theta1);
+        double xSpeed2 = xSpeed1 + length2 * omega2 * Math.cos(theta2);
+        double ySpeed2 = ySpeed1 + length2 * omega2 * Math.sin(theta2);
+
+        double kineticEnergy = 0.5 * mass1 * (xSpeed1 * xSpeed1 + ySpeed1 * ySpeed1)
+                + 0.5 * mass2 * (xSpeed2 * xSpeed2 + ySpeed2 * ySpeed2);
+        double potentialEnergy = mass1 * gravity * y1 + mass2 * gravity * y2;
+
+        return kineticEnergy + potentialEnergy;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per microsecond that {@link StateStreamWriter} encodes and {@link StateStreamReader} decodes for a
+ * simulated run of each preset, next to the rate at which the integrator produces them ({@code integrate}).
+ * A raw record is 40 bytes (step and the four state components), so multiplying by 40 gives MB/s of raw data.
+ * The compression ratio of each preset is printed once at the end of its trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateStreamBenchmark {
+    private static final int RECORDS = 1_000_000;
+    private static final int RAW_RECORD_BYTES = 40;
+
+    @Param({"faster", "default", "accurate", "rk4", "fine"})
+    public String preset;
+
+    private Arguments arguments;
+    private Simulation simulation;
+    private double[][] states;
+    private Path encoded;
+    private Path decoded;
+    private Speed speed;
+
+    @Setup
+    public void setUp() throws IOException {
+        arguments = Arguments.usingDefault();
+        simulation = switch (preset) {
+            case "faster" -> Simulation.faster();
+            case "accurate" -> Simulation.accurate();
+            case "rk4" -> Simulation.accurate().withIntegrator(IntegratorType.RK4);
+            case "fine" -> Simulation.accurate().withTimeStep(0.001);
+            default -> Simulation.usingDefault();
+        };
+
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingAngles(120, -10));
+        states = new double[4][RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            Speed current = engine.getSpeed();
+            states[0][i] = current.getTheta1();
+            states[1][i] = current.getTheta2();
+            states[2][i] = current.getOmega1();
+            states[3][i] = current.getOmega2();
+            engine.step();
+        }
+
+        encoded = Files.createTempFile("state-stream-encode", ".dpss");
+        decoded = Files.createTempFile("state-stream-decode", ".dpss");
+        write(decoded);
+        speed = new Speed(0, 0, 0, 0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.printf("%n%s (%s, dt=%.3f): compression %.2fx%n", preset, simulation.getIntegrator().getName(),
+                simulation.getTimeStep(), (double) RECORDS * RAW_RECORD_BYTES / Files.size(decoded));
+        Files.deleteIfExists(encoded);
+        Files.deleteIfExists(decoded);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void encode() throws IOException {
+        write(encoded);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public double decode() throws IOException {
+        double checksum = 0;
+        try (StateStreamReader reader = new StateStreamReader(decoded)) {
+            for (int i = 0; i < RECORDS; i++) {
+                reader.read(i, speed);
+                checksum += speed.getOmega2();
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public Speed integrate() {
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingAngles(120, -10));
+        engine.step(RECORDS);
+        return engine.getSpeed();
+    }
+
+    private void write(Path file) throws IOException {
+        try (StateStreamWriter writer = new StateStreamWriter(file, arguments, simulation)) {
+            for (int i = 0; i < RECORDS; i++) {
+                writer.append(i, states[0][i], states[1][i], states[2][i], states[3][i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.andradenathan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state {@code addPoint} on a full trajectory, so every call also evicts the oldest point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectoryBenchmark {
+    @Param({"1000", "100000"})
+    private int maxPoints;
+
+    private Trajectory trajectory;
+    private double angle;
+
+    @Setup
+    public void setUp() {
+        trajectory = new Trajectory(maxPoints);
+        for (int i = 0; i < maxPoints; i++) {
+            addNextPoint();
+        }
+    }
+
+    @Benchmark
+    public Trajectory addPoint() {
+        addNextPoint();
+        return trajectory;
+    }
+
+    private void addNextPoint() {
+        angle += 0.01;
+        trajectory.addPoint(400 + 300 * Math.cos(angle), 350 + 300 * Math.sin(angle));
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.Lagrange.OMEGA1;
+import static com.github.andradenathan.Lagrange.OMEGA2;
+import static com.github.andradenathan.Lagrange.THETA1;
+import static com.github.andradenathan.Lagrange.THETA2;
+
+/**
+ * Adaptive Dormand–Prince 5(4). Each call advances the state by exactly {@code timeStep}, taking as
+ * many internal steps as the tolerances require; the internal step size carries over between calls.
+ * A step fails with {@link IllegalStateException} when the error estimate is not finite or the tolerances
+ * would need a step below {@value #MIN_STEP} s.
+ */
+public class AdaptiveIntegrator extends DormandPrinceIntegrator {
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+    private static final double MIN_STEP = 1e-12;
+
+    private final Tolerance tolerance;
+
+    private final double[] trial = new double[DIMENSION];
+    private final double[] last = new double[DIMENSION];
+    private Lagrange lastLagrange;
+
+    private double stepSize = 0;
+    private long acceptedSteps = 0;
+    private long rejectedSteps = 0;
+
+    public AdaptiveIntegrator(Tolerance tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    void step(Lagrange lagrange, double[] y, double timeStep) {
+        if (!isLastState(lagrange, y)) {
+            derivative(lagrange, y, k1);
+        }
+
+        double elapsed = 0;
+        boolean rejected = false;
+        if (stepSize <= 0) {
+            stepSize = timeStep;
+        }
+
+        while (elapsed < timeStep) {
+            double remaining = timeStep - elapsed;
+            double h = Math.min(stepSize, remaining);
+
+            solve(lagrange, y, h, trial);
+            derivative(lagrange, trial, k7);
+            double error = errorNorm(y, h);
+            if (!Double.isFinite(error)) {
+                throw new IllegalStateException("Adaptive step error is not finite at t+" + elapsed + " s, h=" + h);
+            }
+
+            if (error <= 1.0) {
+                acceptedSteps++;
+                System.arraycopy(trial, 0, y, 0, DIMENSION);
+                System.arraycopy(k7, 0, k1, 0, DIMENSION);
+                elapsed = h >= remaining ? timeStep : elapsed + h;
+
+                double factor = Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, SAFETY * Math.pow(error, -0.2)));
+                if (rejected) {
+                    factor = Math.min(factor, 1.0);
+                }
+                // A step shortened only to land on the end of the interval must not shrink the carried-over size.
+                stepSize = h < stepSize ? Math.max(stepSize, h * factor) : h * factor;
+                rejected = false;
+            } else {
+                rejectedSteps++;
+                stepSize = h * Math.max(MIN_FACTOR, SAFETY * Math.pow(error, -0.2));
+                rejected = true;
+                if (stepSize < MIN_STEP) {
+                    throw new IllegalStateException("Adaptive step size fell below " + MIN_STEP + " s at t+"
+                            + elapsed + " s, the tolerances cannot be met");
+                }
+            }
+        }
+
+        System.arraycopy(y, 0, last, 0, DIMENSION);
+        lastLagrange = lagrange;
+    }
+
+    private double errorNorm(double[] y, double h) {
+        double sum = 0;
+
+        for (int i = 0; i < DIMENSION; i++) {
+            double error = h * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+            double scale = tolerance.absolute()
+                    + tolerance.relative() * Math.max(Math.abs(y[i]), Math.abs(trial[i]));
+            sum += (error / scale) * (error / scale);
+        }
+
+        return Math.sqrt(sum / DIMENSION);
+    }
+
+    private boolean isLastState(Lagrange lagrange, double[] y) {
+        return lagrange == lastLagrange
+                && y[THETA1] == last[THETA1] && y[THETA2] == last[THETA2]
+                && y[OMEGA1] == last[OMEGA1] && y[OMEGA2] == last[OMEGA2];
+    }
+
+    public Tolerance getTolerance() {
+        return tolerance;
+    }
+
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    public long getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    public long getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.ADAPTIVE;
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.andradenathan;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Reads bit fields written by {@link BitWriter}. The array must hold {@value #PADDING} readable bytes past
+ * the data, so every field can be taken from one unaligned 64-bit load.
+ */
+final class BitReader {
+    static final int PADDING = Long.BYTES;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private byte[] bytes;
+    private long position;
+
+    void reset(byte[] bytes) {
+        reset(bytes, 0);
+    }
+
+    /**
+     * Starts reading at byte {@code offset} of {@code bytes}.
+     */
+    void reset(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = (long) offset * Byte.SIZE;
+    }
+
+    /**
+     * Returns the next {@code count} bits, 1 to 64, in the low bits of the result.
+     */
+    long read(int count) {
+        if (count > Long.SIZE - Byte.SIZE) {
+            long high = read(count - Integer.SIZE);
+            return (high << Integer.SIZE) | read(Integer.SIZE);
+        }
+
+        long word = (long) LONGS.get(bytes, (int) (position >>> 3));
+        long value = (word << (position & 7)) >>> (Long.SIZE - count);
+        position += count;
+        return value;
+    }
+
+    boolean readBit() {
+        return read(1) != 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.andradenathan;
+
+import java.util.Arrays;
+
+/**
+ * Packs bit fields most significant bit first into a growable byte array.
+ */
+final class BitWriter {
+    private byte[] bytes;
+    private int length = 0;
+    private long word = 0;
+    private int free = Long.SIZE;
+
+    BitWriter(int initialCapacity) {
+        this.bytes = new byte[Math.max(Long.BYTES, initialCapacity)];
+    }
+
+    /**
+     * Appends the low {@code count} bits of {@code value}, 1 to 64 bits.
+     */
+    void write(long value, int count) {
+        if (count < Long.SIZE) {
+            value &= (1L << count) - 1;
+        }
+
+        if (count <= free) {
+            word |= value << (free - count);
+            free -= count;
+            if (free == 0) {
+                flushWord();
+            }
+        } else {
+            int remaining = count - free;
+            word |= value >>> remaining;
+            flushWord();
+            word = value << (Long.SIZE - remaining);
+            free = Long.SIZE - remaining;
+        }
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Pads the last byte with zeros and returns the number of bytes written since the last reset.
+     */
+    int finish() {
+        int used = Long.SIZE - free;
+        ensureCapacity(Long.BYTES);
+        for (int shift = Long.SIZE - Byte.SIZE; used > 0; shift -= Byte.SIZE, used -= Byte.SIZE) {
+            bytes[length++] = (byte) (word >>> shift);
+        }
+        word = 0;
+        free = Long.SIZE;
+        return length;
+    }
+
+    void reset() {
+        length = 0;
+        word = 0;
+        free = Long.SIZE;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    private void flushWord() {
+        ensureCapacity(Long.BYTES);
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            bytes[length++] = (byte) (word >>> shift);
+        }
+        word = 0;
+        free = Long.SIZE;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.andradenathan;
+
+/**
+ * Dormand–Prince 5(4) Runge–Kutta pair. Used with a fixed step it advances with the fifth order
+ * solution, at six acceleration evaluations per step.
+ */
+public class DormandPrinceIntegrator extends StateIntegrator {
+    static final double C2 = 1.0 / 5, C3 = 3.0 / 10, C4 = 4.0 / 5, C5 = 8.0 / 9;
+
+    static final double A21 = 1.0 / 5;
+    static final double A31 = 3.0 / 40, A32 = 9.0 / 40;
+    static final double A41 = 44.0 / 45, A42 = -56.0 / 15, A43 = 32.0 / 9;
+    static final double A51 = 19372.0 / 6561, A52 = -25360.0 / 2187, A53 = 64448.0 / 6561, A54 = -212.0 / 729;
+    static final double A61 = 9017.0 / 3168, A62 = -355.0 / 33, A63 = 46732.0 / 5247, A64 = 49.0 / 176,
+            A65 = -5103.0 / 18656;
+
+    static final double B1 = 35.0 / 384, B3 = 500.0 / 1113, B4 = 125.0 / 192, B5 = -2187.0 / 6784, B6 = 11.0 / 84;
+
+    static final double E1 = 71.0 / 57600, E3 = -71.0 / 16695, E4 = 71.0 / 1920, E5 = -17253.0 / 339200,
+            E6 = 22.0 / 525, E7 = -1.0 / 40;
+
+    private final double[] state = new double[DIMENSION];
+    private final double[] stage = new double[DIMENSION];
+
+    final double[] k1 = new double[DIMENSION];
+    final double[] k2 = new double[DIMENSION];
+    final double[] k3 = new double[DIMENSION];
+    final double[] k4 = new double[DIMENSION];
+    final double[] k5 = new double[DIMENSION];
+    final double[] k6 = new double[DIMENSION];
+    final double[] k7 = new double[DIMENSION];
+
+    @Override
+    double[] state() {
+        return state;
+    }
+
+    @Override
+    void step(Lagrange lagrange, double[] y, double timeStep) {
+        derivative(lagrange, y, k1);
+        solve(lagrange, y, timeStep, y);
+    }
+
+    /**
+     * Evaluates stages two to six from {@code k1 = f(y)} and writes the fifth order solution to
+     * {@code result}, which may alias {@code y}.
+     */
+    void solve(Lagrange lagrange, double[] y, double h, double[] result) {
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + h * A21 * k1[i];
+        }
+        derivative(lagrange, stage, k2);
+
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + h * (A31 * k1[i] + A32 * k2[i]);
+        }
+        derivative(lagrange, stage, k3);
+
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + h * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+        }
+        derivative(lagrange, stage, k4);
+
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + h * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+        }
+        derivative(lagrange, stage, k5);
+
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + h * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+        }
+        derivative(lagrange, stage, k6);
+
+        for (int i = 0; i < DIMENSION; i++) {
+            result[i] = y[i] + h * (B1 * k1[i] + B3 * k3[i] + B4 * k4[i] + B5 * k5[i] + B6 * k6[i]);
+        }
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.DORMAND_PRINCE;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.andradenathan;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class EnsembleEngine {
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final ForkJoinPool pool;
+    private final EnsembleKernel kernel;
+
+    private final double[] theta1;
+    private final double[] theta2;
+    private final double[] omega1;
+    private final double[] omega2;
+
+    private long steps = 0;
+
+    public EnsembleEngine(Arguments arguments, Simulation simulation, int size) {
+        this(arguments, simulation, size, EnsembleKernel.preferred(arguments));
+    }
+
+    public EnsembleEngine(Arguments arguments, Simulation simulation, int size, EnsembleKernel kernel) {
+        this(arguments, simulation, size, kernel, ForkJoinPool.commonPool());
+    }
+
+    public EnsembleEngine(Arguments arguments, Simulation simulation, int size, EnsembleKernel kernel,
+                          ForkJoinPool pool) {
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.kernel = kernel;
+        this.pool = pool;
+
+        this.theta1 = new double[size];
+        this.theta2 = new double[size];
+        this.omega1 = new double[size];
+        this.omega2 = new double[size];
+    }
+
+    public static EnsembleEngine spread(Arguments arguments, Simulation simulation,
+                                        Speed base, int size, double spread) {
+        return spread(arguments, simulation, base, size, spread, EnsembleKernel.preferred(arguments));
+    }
+
+    public static EnsembleEngine spread(Arguments arguments, Simulation simulation,
+                                        Speed base, int size, double spread, EnsembleKernel kernel) {
+        EnsembleEngine engine = new EnsembleEngine(arguments, simulation, size, kernel);
+
+        for (int index = 0; index < size; index++) {
+            engine.theta1[index] = base.getTheta1() + index * spread;
+            engine.theta2[index] = base.getTheta2();
+            engine.omega1[index] = base.getOmega1();
+            engine.omega2[index] = base.getOmega2();
+        }
+
+        return engine;
+    }
+
+    public void set(int index, Speed speed) {
+        theta1[index] = speed.getTheta1();
+        theta2[index] = speed.getTheta2();
+        omega1[index] = speed.getOmega1();
+        omega2[index] = speed.getOmega2();
+    }
+
+    public void copyInto(int index, Speed target) {
+        target.update(theta1[index], theta2[index], omega1[index], omega2[index]);
+    }
+
+    public void step(int count) {
+        if (count <= 0 || size() == 0) {
+            return;
+        }
+
+        pool.invoke(new StepTask(0, size(), count));
+        steps += count;
+    }
+
+    public int size() {
+        return theta1.length;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    public EnsembleKernel getKernel() {
+        return kernel;
+    }
+
+    double[] theta1() {
+        return theta1;
+    }
+
+    double[] theta2() {
+        return theta2;
+    }
+
+    double[] omega1() {
+        return omega1;
+    }
+
+    double[] omega2() {
+        return omega2;
+    }
+
+    private class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int count;
+
+        StepTask(int from, int to, int count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                kernel.advance(theta1, theta2, omega1, omega2, from, to, count, simulation.getTimeStep());
+                return;
+            }
+
+            // Keep split points on a multiple of any vector width so only the last leaf has a scalar tail.
+            int middle = ((from + to) >>> 1) & ~63;
+            invokeAll(new StepTask(from, middle, count), new StepTask(middle, to, count));
+        }
+    }
+}
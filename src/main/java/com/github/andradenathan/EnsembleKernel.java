@@ -0,0 +1,47 @@
+package com.github.andradenathan;
+
+public interface EnsembleKernel {
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    void advance(double[] theta1, double[] theta2, double[] omega1, double[] omega2,
+                 int from, int to, int steps, double timeStep);
+
+    String getName();
+
+    static EnsembleKernel preferred(Arguments arguments) {
+        return preferred(arguments, TrigMode.MATH);
+    }
+
+    /**
+     * The vector kernel when the module is present, otherwise the scalar kernel with {@code trigMode}. The
+     * vector kernel always uses {@link VectorTrig}.
+     */
+    static EnsembleKernel preferred(Arguments arguments, TrigMode trigMode) {
+        if (isVectorSupported()) {
+            return new VectorEnsembleKernel(arguments);
+        }
+        return new ScalarEnsembleKernel(arguments, trigMode);
+    }
+
+    static boolean isVectorSupported() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    static EnsembleKernel fromName(String name, Arguments arguments) {
+        return fromName(name, arguments, TrigMode.MATH);
+    }
+
+    static EnsembleKernel fromName(String name, Arguments arguments, TrigMode trigMode) {
+        return switch (name) {
+            case "scalar" -> new ScalarEnsembleKernel(arguments, trigMode);
+            case "vector" -> {
+                if (!isVectorSupported()) {
+                    throw new IllegalArgumentException(
+                            "The vector kernel needs --add-modules " + VECTOR_MODULE);
+                }
+                yield new VectorEnsembleKernel(arguments);
+            }
+            default -> throw new IllegalArgumentException("Unknown kernel: " + name);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.andradenathan;
+
+/**
+ * Runs an {@link EnsembleEngine} on its own thread with the {@link FixedStepLoop} accumulator, like
+ * {@link PhysicsLoop}: every display frame of wall time advances all members by {@code stepsPerFrame} steps,
+ * multiplied by the time scale. One ensemble step costs as much as thousands of single steps, so the due
+ * steps are run in chunks sized from the measured cost of a step, keeping each chunk under
+ * {@code BATCH_NANOS} so {@link #snapshot} is not locked out for long.
+ *
+ * <p>The view reads the last stepped angles through {@link #snapshot}; there is no interpolation between
+ * steps.
+ */
+public class EnsembleLoop extends FixedStepLoop {
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final Speed base;
+    private final int size;
+    private final double spread;
+    private final EnsembleKernel kernel;
+
+    private EnsembleEngine engine;
+    private double stepNanos = 0;
+
+    /**
+     * Spreads {@code size} members around {@code base} as {@link EnsembleEngine#spread} does.
+     */
+    public EnsembleLoop(Arguments arguments, Simulation simulation, Speed base, int size, double spread,
+                        EnsembleKernel kernel) {
+        this(arguments, simulation, base, size, spread, kernel, System.nanoTime());
+    }
+
+    EnsembleLoop(Arguments arguments, Simulation simulation, Speed base, int size, double spread,
+                 EnsembleKernel kernel, long startNanos) {
+        super("ensemble", simulation.getStepsPerFrame(), startNanos);
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.base = base.copy();
+        this.size = size;
+        this.spread = spread;
+        this.kernel = kernel;
+        this.engine = EnsembleEngine.spread(arguments, simulation, base, size, spread, kernel);
+    }
+
+    /**
+     * Runs one chunk of the due steps, sized from the average cost of the recent ones.
+     */
+    @Override
+    void runDueSteps() {
+        long due = dueSteps();
+        if (due > 0) {
+            int chunk = (int) Math.min(due, stepNanos > 0 ? Math.max(1, (long) (BATCH_NANOS / stepNanos)) : 1);
+            long start = System.nanoTime();
+            engine.step(chunk);
+            double nanos = (double) (System.nanoTime() - start) / chunk;
+            stepNanos = stepNanos > 0 ? 0.75 * stepNanos + 0.25 * nanos : nanos;
+
+            stepped(chunk);
+        }
+    }
+
+    /**
+     * Copies the angles of every member into {@code theta1} and {@code theta2}, which hold at least
+     * {@link #size()} values, and the state of the first member into {@code first}.
+     */
+    public synchronized void snapshot(double[] theta1, double[] theta2, Speed first) {
+        System.arraycopy(engine.theta1(), 0, theta1, 0, size);
+        System.arraycopy(engine.theta2(), 0, theta2, 0, size);
+        engine.copyInto(0, first);
+    }
+
+    /**
+     * Spreads the members around {@code base} again.
+     */
+    public synchronized void reset() {
+        engine = EnsembleEngine.spread(arguments, simulation, base, size, spread, kernel);
+        clearBacklog();
+    }
+
+    public synchronized long getSteps() {
+        return engine.getSteps();
+    }
+
+    public synchronized double getSimulationTime() {
+        return engine.getSteps() * simulation.getTimeStep();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getSpread() {
+        return spread;
+    }
+
+    public EnsembleKernel getKernel() {
+        return kernel;
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.andradenathan;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Draws the arms and bobs of every member of an ensemble straight into the pixels of an RGB image, in one
+ * pass over the angles. Stroking thousands of arms through {@link java.awt.Graphics2D} costs about a second
+ * per frame; here each arm only counts the pixels it crosses, and one pass over the scene then blends the
+ * arm color as if that many translucent arms had been drawn on top of each other. The cloud gets brighter
+ * where members overlap and fades as they diverge. The bobs are small opaque squares colored by member index.
+ *
+ * <p>Every frame starts from a copy of the background taken by {@link #captureBackground}. Only the scene
+ * left of the sidebar is drawn into. A raster must not be shared between threads.
+ */
+final class EnsembleRaster {
+    private static final int ARM_COLOR = 0xC8C8D2;
+    private static final int BOB1_COLOR = 0xFF6464;
+    private static final int MIN_ARM_ALPHA = 8;
+    private static final int MAX_ARM_ALPHA = 160;
+    private static final int CLOUD_ALPHA = 2560;
+    private static final int MAX_COVERAGE = 256;
+    private static final int FIXED_BITS = 16;
+    private static final double FIXED_ONE = 1 << FIXED_BITS;
+
+    private final BufferedImage image;
+    private final int[] pixels;
+    private final int[] background;
+    private final int width;
+    private final int height;
+    private final int sceneWidth;
+
+    private final int originX;
+    private final int originY;
+    private final double length1;
+    private final double length2;
+    private final int[] colors;
+    private final int[] alphas;
+    private final int[] coverage;
+    private final int[] bobs1;
+    private final int[] bobs2;
+
+    EnsembleRaster(Arguments arguments, Simulation simulation, int width, int height, int members) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.background = new int[pixels.length];
+        this.width = width;
+        this.height = height;
+        this.sceneWidth = Math.max(0, width - PendulumRenderer.SIDEBAR_WIDTH);
+
+        this.originX = simulation.getXOrigin();
+        this.originY = simulation.getYOrigin();
+        this.length1 = arguments.length1();
+        this.length2 = arguments.length2();
+        this.colors = createColors(members);
+        this.alphas = createAlphas(Math.max(MIN_ARM_ALPHA, Math.min(MAX_ARM_ALPHA, CLOUD_ALPHA / Math.max(1, members))));
+        this.coverage = new int[sceneWidth * height];
+        this.bobs1 = new int[members];
+        this.bobs2 = new int[members];
+    }
+
+    BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Keeps the current contents of the image as the background of every following frame.
+     */
+    void captureBackground() {
+        System.arraycopy(pixels, 0, background, 0, pixels.length);
+    }
+
+    /**
+     * Draws the first {@code count} members over the background and returns the root mean square distance,
+     * in pixels, of their outer bobs from the mean outer bob: zero while they move together, growing as they
+     * diverge.
+     */
+    double draw(double[] theta1, double[] theta2, int count) {
+        System.arraycopy(background, 0, pixels, 0, pixels.length);
+
+        double sumX = 0;
+        double sumY = 0;
+        double sumSquares = 0;
+        double firstX = 0;
+        double firstY = 0;
+        for (int member = 0; member < count; member++) {
+            double x1 = originX + length1 * Math.sin(theta1[member]);
+            double y1 = originY + length1 * Math.cos(theta1[member]);
+            double x2 = x1 + length2 * Math.sin(theta2[member]);
+            double y2 = y1 + length2 * Math.cos(theta2[member]);
+
+            countLine(originX, originY, x1, y1);
+            countLine(x1, y1, x2, y2);
+            bobs1[member] = (int) x1 << 16 | (int) y1 & 0xFFFF;
+            bobs2[member] = (int) x2 << 16 | (int) y2 & 0xFFFF;
+
+            // Offsets from the first member keep the variance from cancelling out while members are close.
+            if (member == 0) {
+                firstX = x2;
+                firstY = y2;
+            }
+            double offsetX = x2 - firstX;
+            double offsetY = y2 - firstY;
+            sumX += offsetX;
+            sumY += offsetY;
+            sumSquares += offsetX * offsetX + offsetY * offsetY;
+        }
+
+        blendCoverage();
+        for (int member = 0; member < count; member++) {
+            fill((bobs1[member] >> 16) - 1, (short) bobs1[member] - 1, 2, BOB1_COLOR);
+        }
+        for (int member = 0; member < count; member++) {
+            fill((bobs2[member] >> 16) - 1, (short) bobs2[member] - 1, 3, colors[member]);
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+        double meanX = sumX / count;
+        double meanY = sumY / count;
+        return Math.sqrt(Math.max(0, sumSquares / count - meanX * meanX - meanY * meanY));
+    }
+
+    /**
+     * Counts the pixels of the segment in {@link #coverage}, stepping along its major axis in 16.16 fixed point.
+     */
+    private void countLine(double fromX, double fromY, double toX, double toY) {
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        int steps = (int) Math.max(Math.abs(dx), Math.abs(dy));
+        if (steps == 0) {
+            return;
+        }
+
+        int x = (int) ((fromX + 0.5) * FIXED_ONE);
+        int y = (int) ((fromY + 0.5) * FIXED_ONE);
+        int stepX = (int) (dx / steps * FIXED_ONE);
+        int stepY = (int) (dy / steps * FIXED_ONE);
+        if (inside(fromX, fromY) && inside(toX, toY)) {
+            for (int step = 0; step < steps; step++) {
+                coverage[(y >> FIXED_BITS) * sceneWidth + (x >> FIXED_BITS)]++;
+                x += stepX;
+                y += stepY;
+            }
+            return;
+        }
+
+        for (int step = 0; step < steps; step++) {
+            int px = x >> FIXED_BITS;
+            int py = y >> FIXED_BITS;
+            if (px >= 0 && px < sceneWidth && py >= 0 && py < height) {
+                coverage[py * sceneWidth + px]++;
+            }
+            x += stepX;
+            y += stepY;
+        }
+    }
+
+    private boolean inside(double x, double y) {
+        return x >= 0 && x < sceneWidth - 1 && y >= 0 && y < height - 1;
+    }
+
+    /**
+     * Blends the arm color over every covered pixel, more opaque the more arms cross it, and clears the
+     * coverage for the next frame.
+     */
+    private void blendCoverage() {
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int sceneRow = y * sceneWidth;
+            for (int x = 0; x < sceneWidth; x++) {
+                int count = coverage[sceneRow + x];
+                if (count == 0) {
+                    continue;
+                }
+                coverage[sceneRow + x] = 0;
+
+                int alpha = alphas[Math.min(count, alphas.length - 1)];
+                int inverse = 256 - alpha;
+                int pixel = pixels[row + x];
+                pixels[row + x] = (((ARM_COLOR & 0xFF00FF) * alpha + (pixel & 0xFF00FF) * inverse) >>> 8 & 0xFF00FF)
+                        | (((ARM_COLOR & 0x00FF00) * alpha + (pixel & 0x00FF00) * inverse) >>> 8 & 0x00FF00);
+            }
+        }
+    }
+
+    private void fill(int left, int top, int size, int color) {
+        int fromX = Math.max(0, left);
+        int toX = Math.min(sceneWidth, left + size);
+        int fromY = Math.max(0, top);
+        int toY = Math.min(height, top + size);
+        for (int y = fromY; y < toY; y++) {
+            int row = y * width;
+            for (int x = fromX; x < toX; x++) {
+                pixels[row + x] = color;
+            }
+        }
+    }
+
+    /**
+     * Opacity of {@code count} arms of opacity {@code armAlpha} / 256 drawn over each other.
+     */
+    private static int[] createAlphas(int armAlpha) {
+        int[] alphas = new int[MAX_COVERAGE + 1];
+        double transparency = 1 - armAlpha / 256.0;
+        for (int count = 0; count <= MAX_COVERAGE; count++) {
+            alphas[count] = (int) Math.round(256 * (1 - Math.pow(transparency, count)));
+        }
+        return alphas;
+    }
+
+    /**
+     * Outer bob colors from the accent blue of the first member to pink for the last, as in the trail.
+     */
+    private static int[] createColors(int members) {
+        int[] colors = new int[members];
+        for (int member = 0; member < members; member++) {
+            double progress = members > 1 ? (double) member / (members - 1) : 0;
+            int r = (int) (progress * 255);
+            int g = (int) (200 - progress * 100);
+            int b = (int) (255 - progress * 100);
+            colors[member] = r << 16 | g << 8 | b;
+        }
+        return colors;
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.andradenathan;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+
+/**
+ * Shows every member of an {@link EnsembleLoop} at once: the arms and bobs of the whole ensemble are
+ * rasterized by {@link EnsembleRaster}, and the first member is drawn on top as in {@link DoublePendulum}, with
+ * its state in the sidebar next to the spread of the outer bobs.
+ */
+public class EnsembleView extends JPanel implements ActionListener, PendulumControls {
+    private static final int CONTROLS_X = 10;
+    private static final int CONTROLS_BOTTOM = 10;
+
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final EnsembleLoop loop;
+    private final PendulumRenderer renderer;
+
+    private final double[] theta1;
+    private final double[] theta2;
+    private final Speed first = new Speed(0, 0, 0, 0);
+
+    private EnsembleRaster raster;
+    private BufferedImage controlsLayer;
+
+    private final Timer timer;
+    private int frameCount = 0;
+
+    public EnsembleView(Arguments arguments, Simulation simulation, EnsembleLoop loop) {
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.loop = loop;
+        this.renderer = new PendulumRenderer(arguments, simulation);
+        this.theta1 = new double[loop.size()];
+        this.theta2 = new double[loop.size()];
+
+        setPreferredSize(new Dimension(1050, 700));
+        setBackground(PendulumRenderer.BACKGROUND_COLOR);
+
+        timer = new Timer((int) (PhysicsLoop.FRAME_NANOS / 1_000_000), this);
+        loop.start();
+        timer.start();
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent event) {
+        frameCount++;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+
+        BufferedImage image = raster == null ? null : raster.getImage();
+        if (image == null || image.getWidth() != getWidth() || image.getHeight() != getHeight()) {
+            renderLayers();
+        }
+
+        loop.snapshot(theta1, theta2, first);
+        double divergence = raster.draw(theta1, theta2, theta1.length);
+
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.drawImage(raster.getImage(), 0, 0, null);
+
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        renderer.drawState(g2d, getWidth(), first);
+        double requested = loop.getTimeScale();
+        renderer.drawRun(g2d, getWidth(), frameCount, String.format("Pendulums: %d", theta1.length),
+                String.format("Divergence: %.1f px", divergence),
+                requested, loop.isPaused() ? requested : loop.getAchievedTimeScale());
+        renderer.drawStatus(g2d, getWidth(), loop.isPaused() ? "PAUSED" : "ENSEMBLE", loop.isPaused());
+
+        renderer.drawPendulums(g2d, first);
+        g2d.drawImage(controlsLayer, CONTROLS_X, getHeight() - CONTROLS_BOTTOM - PendulumRenderer.CONTROLS_HEIGHT,
+                null);
+    }
+
+    private void renderLayers() {
+        raster = new EnsembleRaster(arguments, simulation, getWidth(), getHeight(), theta1.length);
+        Graphics2D background = raster.getImage().createGraphics();
+        background.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        background.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        renderer.drawBackground(background, getWidth(), getHeight());
+        renderer.drawSidebar(background, getWidth(), getHeight());
+        background.dispose();
+        raster.captureBackground();
+
+        controlsLayer = new BufferedImage(PendulumRenderer.controlsWidth(false), PendulumRenderer.CONTROLS_HEIGHT,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D controls = controlsLayer.createGraphics();
+        controls.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        controls.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        renderer.drawControls(controls, false);
+        controls.dispose();
+    }
+
+    @Override
+    public void reload() {
+        loop.reset();
+        frameCount = 0;
+        repaint();
+    }
+
+    @Override
+    public void increaseTimeScale() {
+        loop.setTimeScale(PhysicsLoop.nextTimeScale(loop.getTimeScale()));
+    }
+
+    @Override
+    public void decreaseTimeScale() {
+        loop.setTimeScale(PhysicsLoop.previousTimeScale(loop.getTimeScale()));
+    }
+
+    @Override
+    public void togglePause() {
+        if (loop.isPaused()) {
+            loop.setPaused(false);
+            timer.start();
+        } else {
+            loop.setPaused(true);
+            timer.stop();
+            repaint();
+        }
+    }
+}
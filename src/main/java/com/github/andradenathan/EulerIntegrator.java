@@ -0,0 +1,13 @@
+package com.github.andradenathan;
+
+public class EulerIntegrator implements Integrator {
+    @Override
+    public void step(Lagrange lagrange, Speed speed, double timeStep) {
+        lagrange.integrate(speed, timeStep);
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.EULER;
+    }
+}
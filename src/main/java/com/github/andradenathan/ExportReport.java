@@ -0,0 +1,31 @@
+package com.github.andradenathan;
+
+public record ExportReport(int frames, int fps, double videoSeconds, long simulationNanos, long renderNanos,
+                           long bytes) {
+
+    public double framesPerSecond() {
+        if (renderNanos == 0) {
+            return 0.0;
+        }
+        return frames / (renderNanos / 1e9);
+    }
+
+    /**
+     * How many times faster than real time the clip was produced, simulation included.
+     */
+    public double speedup() {
+        long elapsedNanos = simulationNanos + renderNanos;
+        if (elapsedNanos == 0) {
+            return 0.0;
+        }
+        return videoSeconds / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("frames=%d (%.1fs at %d fps), simulation=%.3fs, render=%.3fs, frames/s=%.1f, "
+                        + "speedup=%.1fx, bytes=%d",
+                frames, videoSeconds, fps, simulationNanos / 1e9, renderNanos / 1e9, framesPerSecond(),
+                speedup(), bytes);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.TrigConstants.C1;
+import static com.github.andradenathan.TrigConstants.C2;
+import static com.github.andradenathan.TrigConstants.C3;
+import static com.github.andradenathan.TrigConstants.C4;
+import static com.github.andradenathan.TrigConstants.C5;
+import static com.github.andradenathan.TrigConstants.C6;
+import static com.github.andradenathan.TrigConstants.PI_OVER_TWO_1;
+import static com.github.andradenathan.TrigConstants.PI_OVER_TWO_2;
+import static com.github.andradenathan.TrigConstants.PI_OVER_TWO_3;
+import static com.github.andradenathan.TrigConstants.ROUNDING;
+import static com.github.andradenathan.TrigConstants.S1;
+import static com.github.andradenathan.TrigConstants.S2;
+import static com.github.andradenathan.TrigConstants.S3;
+import static com.github.andradenathan.TrigConstants.S4;
+import static com.github.andradenathan.TrigConstants.S5;
+import static com.github.andradenathan.TrigConstants.S6;
+import static com.github.andradenathan.TrigConstants.TWO_OVER_PI;
+
+/**
+ * Scalar sine and cosine with the same reduction and polynomials as {@link VectorTrig}: the argument is
+ * reduced to |r| <= pi/4 by a three part Cody–Waite reduction by multiples of pi/2 and evaluated with the
+ * fdlibm kernel polynomials. The maximum absolute error against {@link Math#sin} and {@link Math#cos} is
+ * {@value #MAX_ERROR} (checked by FastTrigTest); beyond |x| = {@value #MAX_ARGUMENT}, where the reduction
+ * would lose accuracy, it falls back to {@link Math}.
+ *
+ * <p>The speed comes from skipping the slow paths {@link Math} needs to stay within 1 ulp. Both methods are
+ * small enough to inline, so a sine and cosine of the same argument share one reduction without a combined call.
+ */
+final class FastTrig {
+    static final double MAX_ERROR = 5e-16;
+    static final double MAX_ARGUMENT = 1e6;
+
+    private FastTrig() {
+    }
+
+    static double sin(double x) {
+        if (!(Math.abs(x) <= MAX_ARGUMENT)) {
+            return Math.sin(x);
+        }
+        double k = (x * TWO_OVER_PI + ROUNDING) - ROUNDING;
+        double r = reduce(x, k);
+        return switch ((int) (long) k & 3) {
+            case 0 -> sinPolynomial(r);
+            case 1 -> cosPolynomial(r);
+            case 2 -> -sinPolynomial(r);
+            default -> -cosPolynomial(r);
+        };
+    }
+
+    static double cos(double x) {
+        if (!(Math.abs(x) <= MAX_ARGUMENT)) {
+            return Math.cos(x);
+        }
+        double k = (x * TWO_OVER_PI + ROUNDING) - ROUNDING;
+        double r = reduce(x, k);
+        return switch ((int) (long) k & 3) {
+            case 0 -> cosPolynomial(r);
+            case 1 -> -sinPolynomial(r);
+            case 2 -> -cosPolynomial(r);
+            default -> sinPolynomial(r);
+        };
+    }
+
+    private static double reduce(double x, double k) {
+        return x - k * PI_OVER_TWO_1 - k * PI_OVER_TWO_2 - k * PI_OVER_TWO_3;
+    }
+
+    private static double sinPolynomial(double r) {
+        double z = r * r;
+        double polynomial = S1 + z * (S2 + z * (S3 + z * (S4 + z * (S5 + z * S6))));
+        return r + r * z * polynomial;
+    }
+
+    private static double cosPolynomial(double r) {
+        double z = r * r;
+        double polynomial = C1 + z * (C2 + z * (C3 + z * (C4 + z * (C5 + z * C6))));
+        return 1.0 - 0.5 * z + z * z * polynomial;
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.andradenathan;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep accumulator shared by {@link PhysicsLoop} and {@link EnsembleLoop}: every display frame of
+ * {@link PhysicsLoop#FRAME_NANOS} of wall time owes {@code stepsPerFrame} steps, multiplied by the time scale,
+ * and {@link #runDueSteps} pays them on the loop's own thread. Wall time is kept scaled by
+ * {@code stepsPerFrame} and the time scale, so one step costs exactly {@code FRAME_NANOS} of it.
+ *
+ * <p>When the CPU cannot keep up, at most {@code MAX_CATCH_UP_NANOS} of backlog is kept and the rest is
+ * dropped, so the achieved time scale, measured over half-second windows, falls below the requested one
+ * instead of the loop falling behind. Subclasses synchronize on themselves, as {@link #advance} does.
+ */
+abstract class FixedStepLoop implements Runnable {
+    /** Longest a call to {@link #runDueSteps} should keep the loop's monitor before returning early. */
+    static final long BATCH_NANOS = 4_000_000L;
+
+    private static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+    private static final long MIN_PARK_NANOS = 200_000L;
+    private static final long SPEED_WINDOW_NANOS = 500_000_000L;
+
+    private final String threadName;
+    private final int stepsPerFrame;
+
+    private long accumulator = 0;
+    private long lastNanos;
+    private boolean paused = false;
+    private double timeScale = PhysicsLoop.MIN_TIME_SCALE;
+
+    private long windowStartNanos;
+    private long windowSteps = 0;
+    private double achievedTimeScale = PhysicsLoop.MIN_TIME_SCALE;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    FixedStepLoop(String threadName, int stepsPerFrame, long startNanos) {
+        this.threadName = threadName;
+        this.stepsPerFrame = stepsPerFrame;
+        this.lastNanos = startNanos;
+        this.windowStartNanos = startNanos;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastNanos = System.nanoTime();
+        windowStartNanos = lastNanos;
+        thread = new Thread(this, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            long wait = advance(System.nanoTime());
+            LockSupport.parkNanos(Math.max(MIN_PARK_NANOS, wait));
+        }
+    }
+
+    /**
+     * Adds the wall time since the last call to the backlog, runs the steps that are due at {@code nowNanos}
+     * and returns the wall time until the next one, or zero when {@link #runDueSteps} returned early.
+     */
+    final synchronized long advance(long nowNanos) {
+        long elapsed = nowNanos - lastNanos;
+        lastNanos = nowNanos;
+
+        if (paused) {
+            return PhysicsLoop.FRAME_NANOS;
+        }
+
+        double rate = stepsPerFrame * timeScale;
+        accumulator = (long) Math.min(accumulator + elapsed * rate, MAX_CATCH_UP_NANOS * rate);
+
+        runDueSteps();
+
+        measureTimeScale(nowNanos);
+        return accumulator >= PhysicsLoop.FRAME_NANOS ? 0
+                : (long) ((PhysicsLoop.FRAME_NANOS - accumulator) / rate);
+    }
+
+    /**
+     * Runs up to {@link #dueSteps()} steps, reporting each batch to {@link #stepped}, and should return within
+     * about {@link #BATCH_NANOS}. Called with the loop's monitor held.
+     */
+    abstract void runDueSteps();
+
+    /** Steps owed per display frame at a time scale of 1. */
+    final int getStepsPerFrame() {
+        return stepsPerFrame;
+    }
+
+    /** Number of whole steps the backlog pays for. */
+    final long dueSteps() {
+        return accumulator / PhysicsLoop.FRAME_NANOS;
+    }
+
+    /** Takes {@code steps} just run off the backlog. */
+    final void stepped(long steps) {
+        accumulator -= steps * PhysicsLoop.FRAME_NANOS;
+        windowSteps += steps;
+    }
+
+    /**
+     * How far {@code nowNanos} lies between the last step and the next one, from 0 to 1; 1 while paused.
+     */
+    final synchronized double stepFraction(long nowNanos) {
+        if (paused) {
+            return 1.0;
+        }
+        return Math.min(1.0, (accumulator + (nowNanos - lastNanos) * stepsPerFrame * timeScale)
+                / PhysicsLoop.FRAME_NANOS);
+    }
+
+    /** Drops the backlog, as after a reset. */
+    final synchronized void clearBacklog() {
+        accumulator = 0;
+    }
+
+    public synchronized void setPaused(boolean paused) {
+        this.paused = paused;
+        accumulator = 0;
+        windowStartNanos = lastNanos;
+        windowSteps = 0;
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    public synchronized void setTimeScale(double timeScale) {
+        this.timeScale = Math.max(PhysicsLoop.MIN_TIME_SCALE, Math.min(PhysicsLoop.MAX_TIME_SCALE, timeScale));
+        this.achievedTimeScale = this.timeScale;
+        windowStartNanos = lastNanos;
+        windowSteps = 0;
+    }
+
+    public synchronized double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Time scale actually reached over the last half second, lower than {@link #getTimeScale()} when the
+     * stepping is CPU-bound.
+     */
+    public synchronized double getAchievedTimeScale() {
+        return achievedTimeScale;
+    }
+
+    private void measureTimeScale(long nowNanos) {
+        long window = nowNanos - windowStartNanos;
+        if (window < SPEED_WINDOW_NANOS) {
+            return;
+        }
+
+        achievedTimeScale = windowSteps * (double) PhysicsLoop.FRAME_NANOS / ((double) window * stepsPerFrame);
+        windowStartNanos = nowNanos;
+        windowSteps = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends simulation states to a memory-mapped file in the {@link RecordingFormat} layout. The file is
+ * mapped in fixed-size segments, so recording a state is six stores into memory and the operating system
+ * writes the pages back in the background.
+ *
+ * <p>The file is never truncated on close, because a mapped file cannot be shrunk on Windows; the record
+ * count in the header marks the end of the data. Not thread-safe.
+ */
+public class FlightRecorder implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final long segmentBytes;
+
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private int position;
+    private long records = 0;
+
+    public FlightRecorder(Path path, Arguments arguments, Simulation simulation) throws IOException {
+        this(path, arguments, simulation, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    FlightRecorder(Path path, Arguments arguments, Simulation simulation, int segmentRecords) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segmentBytes = (long) segmentRecords * RecordingFormat.RECORD_BYTES;
+
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, RecordingFormat.HEADER_BYTES);
+        RecordingFormat.writeHeader(header, arguments, simulation);
+
+        this.segmentStart = RecordingFormat.HEADER_BYTES - segmentBytes;
+        this.position = (int) segmentBytes;
+    }
+
+    public void record(double time, double theta1, double theta2, double omega1, double omega2, double energy)
+            throws IOException {
+        if (position == segmentBytes) {
+            nextSegment();
+        }
+
+        MappedByteBuffer buffer = segment;
+        int offset = position;
+        buffer.putDouble(offset + RecordingFormat.TIME, time);
+        buffer.putDouble(offset + RecordingFormat.THETA1, theta1);
+        buffer.putDouble(offset + RecordingFormat.THETA2, theta2);
+        buffer.putDouble(offset + RecordingFormat.OMEGA1, omega1);
+        buffer.putDouble(offset + RecordingFormat.OMEGA2, omega2);
+        buffer.putDouble(offset + RecordingFormat.ENERGY, energy);
+
+        position = offset + RecordingFormat.RECORD_BYTES;
+        records++;
+    }
+
+    public void record(double time, Speed speed, double energy) throws IOException {
+        record(time, speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2(), energy);
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Publishes the record count so far in the header, for readers of a recording that is still growing.
+     */
+    public void publish() {
+        RecordingFormat.writeRecordCount(header, records);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        publish();
+        if (segment != null) {
+            segment.force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    private void nextSegment() throws IOException {
+        publish();
+        segmentStart += segmentBytes;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, segmentBytes);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        position = 0;
+    }
+}
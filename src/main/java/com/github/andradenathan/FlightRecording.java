@@ -0,0 +1,165 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only view of a file written by {@link FlightRecorder}. The records are memory-mapped rather than
+ * read, so opening a recording only touches the header. Seeking is a binary search over a sparse index
+ * holding the time of every {@value #INDEX_STRIDE}th record, followed by one inside the block; index
+ * entries are filled in as the searches reach them, so a cold seek reads a few dozen pages at most.
+ *
+ * <p>Record times must be non-decreasing, which holds for a single recorded run. Records appended after
+ * the recording was opened are not visible.
+ */
+public class FlightRecording implements AutoCloseable {
+    public static final int INDEX_STRIDE = 4096;
+
+    private static final int SEGMENT_RECORDS = 1 << 24;
+
+    private final FileChannel channel;
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final long records;
+    private final MappedByteBuffer[] segments;
+    private final double[] index;
+
+    public FlightRecording(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < RecordingFormat.HEADER_BYTES) {
+                throw new IOException("Not a flight recording");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, RecordingFormat.HEADER_BYTES);
+            RecordingFormat.validate(header);
+
+            this.arguments = RecordingFormat.readArguments(header);
+            this.simulation = RecordingFormat.readSimulation(header);
+            this.records = RecordingFormat.readRecordCount(header);
+
+            if (records < 1) {
+                throw new IOException("Recording has no states");
+            }
+            if (channel.size() < RecordingFormat.HEADER_BYTES + records * RecordingFormat.RECORD_BYTES) {
+                throw new IOException("Recording is shorter than its record count");
+            }
+
+            this.segments = mapSegments();
+            this.index = createIndex();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    public long size() {
+        return records;
+    }
+
+    public double getStartTime() {
+        return getTime(0);
+    }
+
+    public double getEndTime() {
+        return getTime(records - 1);
+    }
+
+    public double getTime(long record) {
+        return get(record, RecordingFormat.TIME);
+    }
+
+    public double getEnergy(long record) {
+        return get(record, RecordingFormat.ENERGY);
+    }
+
+    public void read(long record, Speed target) {
+        target.update(
+                get(record, RecordingFormat.THETA1),
+                get(record, RecordingFormat.THETA2),
+                get(record, RecordingFormat.OMEGA1),
+                get(record, RecordingFormat.OMEGA2));
+    }
+
+    /**
+     * Returns the last record at or before {@code time}, or the first record when {@code time} precedes
+     * the recording.
+     */
+    public long floorRecord(double time) {
+        int low = 0;
+        int high = index.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (indexTime(middle) <= time) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        long first = (long) low * INDEX_STRIDE;
+        long last = Math.min(records, first + INDEX_STRIDE) - 1;
+        while (first < last) {
+            long middle = (first + last + 1) >>> 1;
+            if (getTime(middle) <= time) {
+                first = middle;
+            } else {
+                last = middle - 1;
+            }
+        }
+        return first;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double get(long record, int field) {
+        if (record < 0 || record >= records) {
+            throw new IndexOutOfBoundsException("Record " + record + " out of bounds for size " + records);
+        }
+        int offset = (int) (record % SEGMENT_RECORDS) * RecordingFormat.RECORD_BYTES;
+        return segments[(int) (record / SEGMENT_RECORDS)].getDouble(offset + field);
+    }
+
+    private MappedByteBuffer[] mapSegments() throws IOException {
+        MappedByteBuffer[] mapped = new MappedByteBuffer[(int) ((records + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS)];
+        for (int segment = 0; segment < mapped.length; segment++) {
+            long first = (long) segment * SEGMENT_RECORDS;
+            long count = Math.min(SEGMENT_RECORDS, records - first);
+            mapped[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    RecordingFormat.HEADER_BYTES + first * RecordingFormat.RECORD_BYTES,
+                    count * RecordingFormat.RECORD_BYTES);
+            mapped[segment].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return mapped;
+    }
+
+    private double[] createIndex() {
+        double[] times = new double[(int) ((records + INDEX_STRIDE - 1) / INDEX_STRIDE)];
+        Arrays.fill(times, Double.NaN);
+        return times;
+    }
+
+    private double indexTime(int block) {
+        double time = index[block];
+        if (Double.isNaN(time)) {
+            time = getTime((long) block * INDEX_STRIDE);
+            index[block] = time;
+        }
+        return time;
+    }
+}
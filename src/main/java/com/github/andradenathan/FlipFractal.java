@@ -0,0 +1,178 @@
+package com.github.andradenathan;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time until either arm flips over the top, for a θ1 × θ2 grid of initial angles released from rest.
+ * Column {@code x} maps θ1 from -π to π and row {@code y} maps θ2 from π down to -π.
+ *
+ * <p>Starting angles whose energy is below {@link #flipThreshold()} can never reach a flip and are
+ * skipped without integrating.
+ */
+public class FlipFractal {
+    public static final float NO_FLIP = -1f;
+
+    private static final int TILE_SIZE = 64;
+
+    private final Arguments arguments;
+    private final double timeStep;
+    private final double maxTime;
+    private final int width;
+    private final int height;
+    private final TrigMode trigMode;
+    private final ForkJoinPool pool;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public FlipFractal(Arguments arguments, double timeStep, double maxTime, int width, int height) {
+        this(arguments, timeStep, maxTime, width, height, ForkJoinPool.commonPool());
+    }
+
+    public FlipFractal(Arguments arguments, double timeStep, double maxTime, int width, int height,
+                       ForkJoinPool pool) {
+        this(arguments, timeStep, maxTime, width, height, TrigMode.MATH, pool);
+    }
+
+    public FlipFractal(Arguments arguments, double timeStep, double maxTime, int width, int height,
+                       TrigMode trigMode, ForkJoinPool pool) {
+        this.arguments = arguments;
+        this.timeStep = timeStep;
+        this.maxTime = maxTime;
+        this.width = width;
+        this.height = height;
+        this.trigMode = trigMode;
+        this.pool = pool;
+    }
+
+    public FractalReport compute(float[] flipTimes) {
+        if (flipTimes.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " pixels, got " + flipTimes.length);
+        }
+
+        evaluations.reset();
+        skipped.reset();
+
+        long start = System.nanoTime();
+        pool.invoke(new TileTask(flipTimes, 0, 0, width, height));
+        long elapsed = System.nanoTime() - start;
+
+        return new FractalReport(width, height, elapsed, evaluations.sum(), skipped.sum());
+    }
+
+    public BufferedImage toImage(float[] flipTimes) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        double scale = Math.log1p(maxTime);
+        for (int i = 0; i < pixels.length; i++) {
+            float time = flipTimes[i];
+            if (time == NO_FLIP) {
+                pixels[i] = 0;
+                continue;
+            }
+
+            float shade = (float) (Math.log1p(time) / scale);
+            pixels[i] = Color.HSBtoRGB(0.66f - 0.66f * shade, 0.85f, 1.0f - 0.7f * shade);
+        }
+
+        return image;
+    }
+
+    public double theta1At(int x) {
+        return -Math.PI + (x + 0.5) * 2 * Math.PI / width;
+    }
+
+    public double theta2At(int y) {
+        return Math.PI - (y + 0.5) * 2 * Math.PI / height;
+    }
+
+    public double flipThreshold() {
+        double inner = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1();
+        double outer = arguments.mass2() * arguments.gravity() * arguments.length2();
+        return Math.min(inner - outer, outer - inner);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    float flipTime(Lagrange lagrange, double[] state, double theta1, double theta2) {
+        double potential = -(arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1()
+                * Math.cos(theta1) - arguments.mass2() * arguments.gravity() * arguments.length2() * Math.cos(theta2);
+        if (potential < flipThreshold()) {
+            skipped.increment();
+            return NO_FLIP;
+        }
+
+        state[Lagrange.THETA1] = theta1;
+        state[Lagrange.THETA2] = theta2;
+        state[Lagrange.OMEGA1] = 0.0;
+        state[Lagrange.OMEGA2] = 0.0;
+
+        long maxSteps = (long) (maxTime / timeStep);
+        for (long step = 1; step <= maxSteps; step++) {
+            lagrange.integrate(state, timeStep);
+            if (Math.abs(state[Lagrange.THETA1]) > Math.PI || Math.abs(state[Lagrange.THETA2]) > Math.PI) {
+                return (float) (step * timeStep);
+            }
+        }
+
+        return NO_FLIP;
+    }
+
+    private class TileTask extends RecursiveAction {
+        private final float[] flipTimes;
+        private final int x;
+        private final int y;
+        private final int tileWidth;
+        private final int tileHeight;
+
+        TileTask(float[] flipTimes, int x, int y, int tileWidth, int tileHeight) {
+            this.flipTimes = flipTimes;
+            this.x = x;
+            this.y = y;
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+        }
+
+        @Override
+        protected void compute() {
+            if (tileWidth > TILE_SIZE || tileHeight > TILE_SIZE) {
+                if (tileWidth >= tileHeight) {
+                    int half = tileWidth / 2;
+                    invokeAll(new TileTask(flipTimes, x, y, half, tileHeight),
+                            new TileTask(flipTimes, x + half, y, tileWidth - half, tileHeight));
+                } else {
+                    int half = tileHeight / 2;
+                    invokeAll(new TileTask(flipTimes, x, y, tileWidth, half),
+                            new TileTask(flipTimes, x, y + half, tileWidth, tileHeight - half));
+                }
+                return;
+            }
+
+            Lagrange lagrange = new Lagrange(arguments, trigMode);
+            double[] state = new double[4];
+            for (int row = y; row < y + tileHeight; row++) {
+                double theta2 = theta2At(row);
+                for (int column = x; column < x + tileWidth; column++) {
+                    flipTimes[row * width + column] = flipTime(lagrange, state, theta1At(column), theta2);
+                }
+            }
+            evaluations.add(lagrange.getEvaluations());
+        }
+    }
+}
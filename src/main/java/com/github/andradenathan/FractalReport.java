@@ -0,0 +1,21 @@
+package com.github.andradenathan;
+
+public record FractalReport(int width, int height, long elapsedNanos, long evaluations, long skippedPixels) {
+
+    public long pixels() {
+        return (long) width * height;
+    }
+
+    public double pixelsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0.0;
+        }
+        return pixels() / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("pixels=%d (%dx%d), elapsed=%.3fs, pixels/s=%.0f, evaluations=%d, skipped=%d",
+                pixels(), width, height, elapsedNanos / 1e9, pixelsPerSecond(), evaluations, skippedPixels);
+    }
+}
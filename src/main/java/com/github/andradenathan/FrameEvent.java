@@ -0,0 +1,43 @@
+package com.github.andradenathan;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code paintComponent} call, with the time spent in each layer. The background and sidebar layers are
+ * only drawn when they are rebuilt, so their timings are zero on most frames.
+ */
+@Name("com.github.andradenathan.Frame")
+@Label("Frame")
+@Category("Double Pendulum")
+@Description("A painted frame and the time spent drawing each layer")
+class FrameEvent extends jdk.jfr.Event {
+    @Label("Layers Rebuilt")
+    boolean layersRebuilt;
+
+    @Label("Background")
+    @Timespan
+    long backgroundNanos;
+
+    @Label("Sidebar")
+    @Timespan
+    long sidebarNanos;
+
+    @Label("Sidebar Values")
+    @Timespan
+    long sidebarValuesNanos;
+
+    @Label("Trajectory")
+    @Timespan
+    long trajectoryNanos;
+
+    @Label("Pendulums")
+    @Timespan
+    long pendulumsNanos;
+
+    @Label("Trail Points")
+    int trailPoints;
+}
@@ -0,0 +1,354 @@
+package com.github.andradenathan;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Renders a run without a window, as an animated GIF when the output ends in {@code .gif} and as a
+ * directory of numbered PNG frames otherwise. Playback matches the live view at the given time scale: every
+ * second of video advances {@value PhysicsLoop#FRAMES_PER_SECOND} display frames of {@code stepsPerFrame}
+ * steps, with the same trail spacing as {@link PhysicsLoop}.
+ *
+ * <p>The run is simulated once up front, keeping only the state of every video frame and the trail points,
+ * which are small next to a single image. The frames are then drawn by {@link PendulumRenderer} and encoded
+ * on the executor, with at most two frames per core in flight, each on a canvas taken from a fixed pool, so
+ * memory does not grow with the length of the clip. GIF frames are compressed on the workers as well and
+ * written in order by the calling thread.
+ */
+public class FrameExporter {
+    private static final String STATUS = "RUNNING";
+
+    // The flat colors of the scene, exact, followed by a 6 × 7 × 6 color cube for everything anti-aliased.
+    private static final int[] PALETTE = createPalette();
+    // Nearest palette entry for every color with 5 bits per channel.
+    private static final byte[] PALETTE_INDEX = createPaletteIndex();
+
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final Speed initialSpeed;
+    private final int width;
+    private final int height;
+    private final int fps;
+    private final double timeScale;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    public FrameExporter(Arguments arguments, Simulation simulation, Speed initialSpeed,
+                         int width, int height, int fps, double timeScale) {
+        this(arguments, simulation, initialSpeed, width, height, fps, timeScale, ForkJoinPool.commonPool(),
+                ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public FrameExporter(Arguments arguments, Simulation simulation, Speed initialSpeed, int width, int height,
+                         int fps, double timeScale, ExecutorService executor, int parallelism) {
+        if (width <= PendulumRenderer.SIDEBAR_WIDTH || height < 1) {
+            throw new IllegalArgumentException("Export size too small: " + width + "x" + height);
+        }
+        if (fps < 1) {
+            throw new IllegalArgumentException("Frames per second must be positive: " + fps);
+        }
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.initialSpeed = initialSpeed.copy();
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        this.timeScale = Math.max(PhysicsLoop.MIN_TIME_SCALE, Math.min(PhysicsLoop.MAX_TIME_SCALE, timeScale));
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public static boolean isGif(Path output) {
+        return output.getFileName() != null && output.getFileName().toString().toLowerCase().endsWith(".gif");
+    }
+
+    public ExportReport export(Path output, double duration) throws IOException, InterruptedException {
+        int frames = (int) Math.max(1, Math.round(duration * fps));
+        long start = System.nanoTime();
+        Run run = simulate(frames);
+        long simulated = System.nanoTime();
+
+        long bytes = 0;
+        if (isGif(output)) {
+            try (GifWriter writer = new GifWriter(
+                    new BufferedOutputStream(Files.newOutputStream(output), 1 << 16), width, height, PALETTE)) {
+                render(run, frames, null, writer);
+            }
+            bytes = Files.size(output);
+        } else {
+            Files.createDirectories(output);
+            render(run, frames, output, null);
+            for (int frame = 0; frame < frames; frame++) {
+                bytes += Files.size(pngFile(output, frame));
+            }
+        }
+
+        return new ExportReport(frames, fps, frames / (double) fps, simulated - start,
+                System.nanoTime() - simulated, bytes);
+    }
+
+    private Run simulate(int frames) {
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, initialSpeed);
+        Speed speed = engine.getSpeed();
+        Run run = new Run(frames, simulation.getTotalFrames());
+        double stepsPerSecond = PhysicsLoop.FRAMES_PER_SECOND * simulation.getStepsPerFrame() * timeScale;
+        long trailInterval = simulation.getStepsPerFrame()
+                * (long) Math.ceil(timeScale / PhysicsLoop.MAX_TRAIL_POINTS_PER_FRAME);
+
+        long sinceTrailPoint = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            long target = Math.round(frame * stepsPerSecond / fps);
+            while (engine.getSteps() < target) {
+                engine.step();
+                if (++sinceTrailPoint >= trailInterval) {
+                    sinceTrailPoint = 0;
+                    run.addTrailPoint(
+                            simulation.getXOrigin() + arguments.length1() * Math.sin(speed.getTheta1())
+                                    + arguments.length2() * Math.sin(speed.getTheta2()),
+                            simulation.getYOrigin() + arguments.length1() * Math.cos(speed.getTheta1())
+                                    + arguments.length2() * Math.cos(speed.getTheta2()));
+                }
+            }
+            run.addFrame(frame, speed);
+        }
+        return run;
+    }
+
+    /**
+     * Draws every frame on the executor and writes it, as a PNG into {@code directory} from the worker or in
+     * order to the GIF {@code writer} from the calling thread.
+     */
+    private void render(Run run, int frames, Path directory, GifWriter writer)
+            throws IOException, InterruptedException {
+        BufferedImage background = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = background.createGraphics();
+        configure(graphics);
+        PendulumRenderer layout = new PendulumRenderer(arguments, simulation);
+        layout.drawBackground(graphics, width, height);
+        layout.drawSidebar(graphics, width, height);
+        graphics.dispose();
+
+        // Every task in flight holds at most one canvas, so taking one never waits.
+        int window = 2 * parallelism;
+        BlockingQueue<Canvas> canvases = new ArrayBlockingQueue<>(window);
+        for (int i = 0; i < window; i++) {
+            canvases.add(new Canvas(background));
+        }
+
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        int submitted = 0;
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                while (submitted < frames && pending.size() < window) {
+                    int next = submitted++;
+                    pending.add(executor.submit(() -> {
+                        Canvas canvas = canvases.take();
+                        try {
+                            canvas.draw(run, next);
+                            if (writer != null) {
+                                return canvas.encodeGif(delay(next));
+                            }
+                            canvas.writePng(pngFile(directory, next));
+                            return null;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } finally {
+                            canvases.add(canvas);
+                        }
+                    }));
+                }
+
+                byte[] encoded = take(pending.removeFirst());
+                if (writer != null) {
+                    writer.writeFrame(encoded);
+                }
+            }
+        } finally {
+            for (Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static Path pngFile(Path directory, int frame) {
+        return directory.resolve(String.format("frame-%05d.png", frame));
+    }
+
+    /**
+     * Hundredths of a second {@code frame} stays on screen, rounded so the clip keeps its length.
+     */
+    private int delay(int frame) {
+        return (int) (Math.round((frame + 1) * 100.0 / fps) - Math.round(frame * 100.0 / fps));
+    }
+
+    private static byte[] take(Future<byte[]> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Frame export failed", e.getCause());
+        }
+    }
+
+    private static void configure(Graphics2D graphics) {
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    }
+
+    /**
+     * The state of every video frame and every trail point of the run, with the number of trail points
+     * added up to each frame.
+     */
+    private static final class Run {
+        private final double[] states;
+        private final int[] trailEnds;
+        private final int trailCapacity;
+        private double[] trailXs = new double[1024];
+        private double[] trailYs = new double[1024];
+        private int trailPoints = 0;
+
+        Run(int frames, int trailCapacity) {
+            this.states = new double[4 * frames];
+            this.trailEnds = new int[frames];
+            this.trailCapacity = trailCapacity;
+        }
+
+        void addTrailPoint(double x, double y) {
+            if (trailPoints == trailXs.length) {
+                trailXs = Arrays.copyOf(trailXs, 2 * trailPoints);
+                trailYs = Arrays.copyOf(trailYs, 2 * trailPoints);
+            }
+            trailXs[trailPoints] = x;
+            trailYs[trailPoints] = y;
+            trailPoints++;
+        }
+
+        void addFrame(int frame, Speed speed) {
+            states[4 * frame] = speed.getTheta1();
+            states[4 * frame + 1] = speed.getTheta2();
+            states[4 * frame + 2] = speed.getOmega1();
+            states[4 * frame + 3] = speed.getOmega2();
+            trailEnds[frame] = trailPoints;
+        }
+
+        void read(int frame, Speed target, Trajectory trajectory) {
+            target.update(states[4 * frame], states[4 * frame + 1], states[4 * frame + 2], states[4 * frame + 3]);
+            trajectory.clear();
+            int end = trailEnds[frame];
+            for (int point = Math.max(0, end - trailCapacity); point < end; point++) {
+                trajectory.addPoint(trailXs[point], trailYs[point]);
+            }
+        }
+    }
+
+    /**
+     * A frame buffer with its own renderer, trail and encoder buffers, used by one worker at a time.
+     */
+    private final class Canvas {
+        private final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        private final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        private final Graphics2D graphics = image.createGraphics();
+        private final PendulumRenderer renderer = new PendulumRenderer(arguments, simulation);
+        private final Trajectory trajectory = new Trajectory(simulation.getTotalFrames());
+        private final Speed speed = new Speed(0, 0, 0, 0);
+        private final BufferedImage background;
+        private byte[] indices;
+        private PngWriter png;
+
+        Canvas(BufferedImage background) {
+            this.background = background;
+            configure(graphics);
+            // Lays out the sidebar; the background is drawn over it with every frame.
+            renderer.drawSidebar(graphics, width, height);
+            graphics.drawImage(background, 0, 0, null);
+        }
+
+        void draw(Run run, int frame) {
+            run.read(frame, speed, trajectory);
+
+            graphics.drawImage(background, 0, 0, null);
+            renderer.drawState(graphics, width, speed);
+            long seconds = frame / fps;
+            renderer.drawRun(graphics, width, frame + 1, String.format("Points: %d", trajectory.size()),
+                    String.format("Time: %02d:%02d", seconds / 60, seconds % 60), timeScale, timeScale);
+            renderer.drawStatus(graphics, width, STATUS, false);
+            renderer.drawTrajectory(graphics, trajectory);
+            renderer.drawPendulums(graphics, speed);
+        }
+
+        byte[] encodeGif(int delay) {
+            if (indices == null) {
+                indices = new byte[pixels.length];
+            }
+            for (int i = 0; i < pixels.length; i++) {
+                int rgb = pixels[i];
+                indices[i] = PALETTE_INDEX[(rgb >> 9 & 0x7C00) | (rgb >> 6 & 0x3E0) | (rgb >> 3 & 0x1F)];
+            }
+            return GifWriter.encodeFrame(indices, width, height, delay);
+        }
+
+        void writePng(Path file) throws IOException {
+            if (png == null) {
+                png = new PngWriter(width, height);
+            }
+            png.write(file, pixels);
+        }
+    }
+
+    private static int[] createPalette() {
+        int[] palette = new int[GifWriter.COLORS];
+        palette[0] = PendulumRenderer.BACKGROUND_COLOR.getRGB() & 0xFFFFFF;
+        palette[1] = PendulumRenderer.SIDEBAR_COLOR.getRGB() & 0xFFFFFF;
+        palette[2] = PendulumRenderer.GRID_COLOR.getRGB() & 0xFFFFFF;
+        palette[3] = PendulumRenderer.TEXT_COLOR.getRGB() & 0xFFFFFF;
+        int index = 4;
+        for (int r = 0; r < 6; r++) {
+            for (int g = 0; g < 7; g++) {
+                for (int b = 0; b < 6; b++) {
+                    palette[index++] = (r * 255 / 5) << 16 | (g * 255 / 6) << 8 | (b * 255 / 5);
+                }
+            }
+        }
+        return palette;
+    }
+
+    private static byte[] createPaletteIndex() {
+        byte[] lookup = new byte[1 << 15];
+        for (int color = 0; color < lookup.length; color++) {
+            int r = (color >> 10 << 3) + 4;
+            int g = (color >> 5 & 0x1F) << 3 | 4;
+            int b = (color & 0x1F) << 3 | 4;
+            int best = 0;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int index = 0; index < PALETTE.length; index++) {
+                int dr = r - (PALETTE[index] >> 16 & 0xFF);
+                int dg = g - (PALETTE[index] >> 8 & 0xFF);
+                int db = b - (PALETTE[index] & 0xFF);
+                int distance = 2 * dr * dr + 4 * dg * dg + 3 * db * db;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = index;
+                }
+            }
+            lookup[color] = (byte) best;
+        }
+        return lookup;
+    }
+}
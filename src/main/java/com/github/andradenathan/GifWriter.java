@@ -0,0 +1,233 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes a looping GIF89a animation with one global palette of 256 colors. {@link #encodeFrame} LZW-compresses
+ * a frame into a self-contained block that only depends on its own pixels, so frames can be encoded on any
+ * thread and handed to {@link #writeFrame} in order. Writing is not thread-safe.
+ */
+final class GifWriter implements AutoCloseable {
+    static final int COLORS = 256;
+
+    private static final int MIN_CODE_SIZE = 8;
+    private static final int CLEAR_CODE = 1 << MIN_CODE_SIZE;
+    private static final int END_CODE = CLEAR_CODE + 1;
+    private static final int MAX_CODE_SIZE = 12;
+    private static final int MAX_CODES = 1 << MAX_CODE_SIZE;
+
+    private final OutputStream output;
+
+    /**
+     * Writes the header, the global {@code palette} of {@value #COLORS} RGB colors and an endless loop.
+     */
+    GifWriter(OutputStream output, int width, int height, int[] palette) throws IOException {
+        if (palette.length != COLORS) {
+            throw new IllegalArgumentException("GIF palette needs " + COLORS + " colors: " + palette.length);
+        }
+        this.output = output;
+
+        ByteSink header = new ByteSink(32 + 3 * COLORS);
+        header.putAscii("GIF89a");
+        header.putShort(width);
+        header.putShort(height);
+        header.put(0xF7);
+        header.put(0);
+        header.put(0);
+        for (int color : palette) {
+            header.put(color >> 16);
+            header.put(color >> 8);
+            header.put(color);
+        }
+        header.put(0x21);
+        header.put(0xFF);
+        header.put(11);
+        header.putAscii("NETSCAPE2.0");
+        header.put(3);
+        header.put(1);
+        header.putShort(0);
+        header.put(0);
+        output.write(header.bytes, 0, header.size);
+    }
+
+    /**
+     * Encodes {@code width × height} palette indices, shown for {@code delay} hundredths of a second.
+     */
+    static byte[] encodeFrame(byte[] pixels, int width, int height, int delay) {
+        ByteSink frame = new ByteSink(32 + pixels.length / 2);
+        frame.put(0x21);
+        frame.put(0xF9);
+        frame.put(4);
+        frame.put(0x04);
+        frame.putShort(delay);
+        frame.put(0);
+        frame.put(0);
+
+        frame.put(0x2C);
+        frame.putShort(0);
+        frame.putShort(0);
+        frame.putShort(width);
+        frame.putShort(height);
+        frame.put(0);
+
+        frame.put(MIN_CODE_SIZE);
+        new LzwEncoder(frame).encode(pixels, width * height);
+        frame.put(0);
+        return Arrays.copyOf(frame.bytes, frame.size);
+    }
+
+    void writeFrame(byte[] frame) throws IOException {
+        output.write(frame);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (output) {
+            output.write(0x3B);
+        }
+    }
+
+    /**
+     * Variable-width LZW as GIF expects it: the code width grows once the next free code no longer fits, up
+     * to 12 bits, and a clear code restarts the table when it is full. Codes are packed least significant bit
+     * first into data sub-blocks of at most 255 bytes.
+     */
+    private static final class LzwEncoder {
+        private static final int TABLE_BITS = 13;
+        private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+
+        private final ByteSink sink;
+        private final int[] keys = new int[1 << TABLE_BITS];
+        private final short[] codes = new short[1 << TABLE_BITS];
+        private final byte[] block = new byte[255];
+        private int blockSize = 0;
+
+        private long accumulator = 0;
+        private int bits = 0;
+        private int codeSize = MIN_CODE_SIZE + 1;
+        private int nextCode = END_CODE + 1;
+        private boolean clearing = false;
+
+        LzwEncoder(ByteSink sink) {
+            this.sink = sink;
+            Arrays.fill(keys, -1);
+        }
+
+        void encode(byte[] pixels, int length) {
+            emit(CLEAR_CODE);
+            if (length == 0) {
+                emit(END_CODE);
+                flush();
+                return;
+            }
+
+            int prefix = pixels[0] & 0xFF;
+            for (int i = 1; i < length; i++) {
+                int symbol = pixels[i] & 0xFF;
+                int key = prefix << 8 | symbol;
+                int slot = (key * 0x9E3779B1) >>> (32 - TABLE_BITS);
+                while (keys[slot] != -1 && keys[slot] != key) {
+                    slot = (slot + 1) & TABLE_MASK;
+                }
+                if (keys[slot] == key) {
+                    prefix = codes[slot];
+                    continue;
+                }
+
+                emit(prefix);
+                prefix = symbol;
+                if (nextCode < MAX_CODES) {
+                    keys[slot] = key;
+                    codes[slot] = (short) nextCode++;
+                } else {
+                    Arrays.fill(keys, -1);
+                    nextCode = END_CODE + 1;
+                    clearing = true;
+                    emit(CLEAR_CODE);
+                }
+            }
+            emit(prefix);
+            emit(END_CODE);
+            flush();
+        }
+
+        private void emit(int code) {
+            accumulator |= (long) code << bits;
+            bits += codeSize;
+            while (bits >= 8) {
+                putByte((int) accumulator);
+                accumulator >>>= 8;
+                bits -= 8;
+            }
+
+            // The decoder adds its entry one code later, so the width grows after the code that fills it.
+            if (clearing) {
+                codeSize = MIN_CODE_SIZE + 1;
+                clearing = false;
+            } else if (nextCode >= 1 << codeSize && codeSize < MAX_CODE_SIZE) {
+                codeSize++;
+            }
+        }
+
+        private void flush() {
+            if (bits > 0) {
+                putByte((int) accumulator);
+                accumulator = 0;
+                bits = 0;
+            }
+            if (blockSize > 0) {
+                sink.put(blockSize);
+                sink.put(block, blockSize);
+                blockSize = 0;
+            }
+        }
+
+        private void putByte(int value) {
+            block[blockSize++] = (byte) value;
+            if (blockSize == block.length) {
+                sink.put(blockSize);
+                sink.put(block, blockSize);
+                blockSize = 0;
+            }
+        }
+    }
+
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size = 0;
+
+        ByteSink(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void put(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void put(byte[] values, int length) {
+            ensure(length);
+            System.arraycopy(values, 0, bytes, size, length);
+            size += length;
+        }
+
+        void putShort(int value) {
+            put(value);
+            put(value >> 8);
+        }
+
+        void putAscii(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                put(text.charAt(i));
+            }
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+}
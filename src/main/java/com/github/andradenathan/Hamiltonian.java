@@ -0,0 +1,120 @@
+package com.github.andradenathan;
+
+/**
+ * Canonical formulation of the double pendulum. The state is {theta1, theta2, p1, p2}, where the
+ * momenta are conjugate to the angles: p = M(theta) omega, with M the configuration dependent mass
+ * matrix. The kinetic term depends on theta1 - theta2, so the Hamiltonian is not separable.
+ */
+public class Hamiltonian {
+    public static final int THETA1 = 0;
+    public static final int THETA2 = 1;
+    public static final int MOMENTUM1 = 2;
+    public static final int MOMENTUM2 = 3;
+
+    private final Arguments arguments;
+
+    private final double mass1;
+    private final double mass2;
+    private final double massSum;
+    private final double length1;
+    private final double length2;
+    private final double gravity;
+
+    private long evaluations = 0;
+
+    public Hamiltonian(Arguments arguments) {
+        this.arguments = arguments;
+        this.mass1 = arguments.mass1();
+        this.mass2 = arguments.mass2();
+        this.massSum = mass1 + mass2;
+        this.length1 = arguments.length1();
+        this.length2 = arguments.length2();
+        this.gravity = arguments.gravity();
+    }
+
+    public void toCanonical(Speed speed, double[] state) {
+        double theta1 = speed.getTheta1();
+        double theta2 = speed.getTheta2();
+        double omega1 = speed.getOmega1();
+        double omega2 = speed.getOmega2();
+        double coupling = mass2 * length1 * length2 * Math.cos(theta1 - theta2);
+
+        state[THETA1] = theta1;
+        state[THETA2] = theta2;
+        state[MOMENTUM1] = massSum * length1 * length1 * omega1 + coupling * omega2;
+        state[MOMENTUM2] = mass2 * length2 * length2 * omega2 + coupling * omega1;
+    }
+
+    public void toSpeed(double[] state, Speed speed) {
+        double theta1 = state[THETA1];
+        double theta2 = state[THETA2];
+        double delta = theta1 - theta2;
+        double cosDelta = Math.cos(delta);
+        double sinDelta = Math.sin(delta);
+
+        speed.update(theta1, theta2,
+                omega1(state[MOMENTUM1], state[MOMENTUM2], cosDelta, sinDelta),
+                omega2(state[MOMENTUM1], state[MOMENTUM2], cosDelta, sinDelta));
+    }
+
+    public double calculateEnergy(double[] state) {
+        double theta1 = state[THETA1];
+        double theta2 = state[THETA2];
+        double momentum1 = state[MOMENTUM1];
+        double momentum2 = state[MOMENTUM2];
+        double delta = theta1 - theta2;
+        double cosDelta = Math.cos(delta);
+        double sinDelta = Math.sin(delta);
+
+        double omega1 = omega1(momentum1, momentum2, cosDelta, sinDelta);
+        double omega2 = omega2(momentum1, momentum2, cosDelta, sinDelta);
+
+        double kineticEnergy = 0.5 * (momentum1 * omega1 + momentum2 * omega2);
+        double potentialEnergy = -massSum * gravity * length1 * Math.cos(theta1)
+                - mass2 * gravity * length2 * Math.cos(theta2);
+
+        return kineticEnergy + potentialEnergy;
+    }
+
+    /**
+     * Writes dH/dp (the angular velocities) to {@code velocities[0..1]} and -dH/dtheta (the
+     * generalized forces) to {@code forces[0..1]}.
+     */
+    public void calculateDerivatives(double theta1, double theta2, double momentum1, double momentum2,
+                                     double[] velocities, double[] forces) {
+        evaluations++;
+
+        double delta = theta1 - theta2;
+        double cosDelta = Math.cos(delta);
+        double sinDelta = Math.sin(delta);
+
+        double omega1 = omega1(momentum1, momentum2, cosDelta, sinDelta);
+        double omega2 = omega2(momentum1, momentum2, cosDelta, sinDelta);
+        double kineticCoupling = mass2 * length1 * length2 * sinDelta * omega1 * omega2;
+
+        velocities[0] = omega1;
+        velocities[1] = omega2;
+        forces[0] = -kineticCoupling - massSum * gravity * length1 * Math.sin(theta1);
+        forces[1] = kineticCoupling - mass2 * gravity * length2 * Math.sin(theta2);
+    }
+
+    private double omega1(double momentum1, double momentum2, double cosDelta, double sinDelta) {
+        double reducedMass = mass1 + mass2 * sinDelta * sinDelta;
+        return (length2 * momentum1 - length1 * momentum2 * cosDelta)
+                / (length1 * length1 * length2 * reducedMass);
+    }
+
+    private double omega2(double momentum1, double momentum2, double cosDelta, double sinDelta) {
+        double reducedMass = mass1 + mass2 * sinDelta * sinDelta;
+        return (massSum * length1 * momentum2 - mass2 * length2 * momentum1 * cosDelta)
+                / (mass2 * length1 * length2 * length2 * reducedMass);
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.andradenathan;
+
+public interface Integrator {
+    void step(Lagrange lagrange, Speed speed, double timeStep);
+
+    IntegratorType getType();
+}
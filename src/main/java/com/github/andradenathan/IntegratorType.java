@@ -0,0 +1,42 @@
+package com.github.andradenathan;
+
+import java.util.function.Function;
+
+public enum IntegratorType {
+    EULER("euler", tolerance -> new EulerIntegrator()),
+    RK4("rk4", tolerance -> new RungeKutta4Integrator()),
+    VERLET("verlet", tolerance -> new VelocityVerletIntegrator()),
+    DORMAND_PRINCE("dopri", tolerance -> new DormandPrinceIntegrator()),
+    ADAPTIVE("adaptive", AdaptiveIntegrator::new),
+    STORMER_VERLET("stormer-verlet", tolerance -> new StormerVerletIntegrator()),
+    YOSHIDA("yoshida4", tolerance -> new YoshidaIntegrator());
+
+    private final String name;
+    private final Function<Tolerance, Integrator> factory;
+
+    IntegratorType(String name, Function<Tolerance, Integrator> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public Integrator create() {
+        return create(Tolerance.usingDefault());
+    }
+
+    public Integrator create(Tolerance tolerance) {
+        return factory.apply(tolerance);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static IntegratorType fromName(String name) {
+        for (IntegratorType type : values()) {
+            if (type.name.equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown integrator: " + name);
+    }
+}
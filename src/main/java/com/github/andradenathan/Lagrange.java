@@ -1,47 +1,54 @@
 package com.github.andradenathan;
 
 public class Lagrange {
+    public static final int THETA1 = 0;
+    public static final int THETA2 = 1;
+    public static final int OMEGA1 = 2;
+    public static final int OMEGA2 = 3;
+
     private final Arguments arguments;
+    private final LagrangeKernel kernel;
+
+    // Scratch buffer reused by integrate(); a Lagrange instance must not be shared between threads.
+    private final double[] accelerations = new double[2];
+    private final double[] jacobian = new double[16];
+    private long evaluations = 0;
 
     public Lagrange(Arguments arguments) {
+        this(arguments, TrigMode.MATH);
+    }
+
+    public Lagrange(Arguments arguments, TrigMode trigMode) {
         this.arguments = arguments;
+        this.kernel = new LagrangeKernel(arguments, trigMode);
     }
 
 
     public double[] calculateAccelerations(Speed speed) {
-        double theta1 = speed.getTheta1();
-        double theta2 = speed.getTheta2();
-        double omega1 = speed.getOmega1();
-        double omega2 = speed.getOmega2();
-
-        double mass1 = arguments.mass1();
-        double mass2 = arguments.mass2();
-        double length1 = arguments.length1();
-        double length2 = arguments.length2();
-        double gravity = arguments.gravity();
-
-        double delta = theta2 - theta1;
-        double cosDelta = Math.cos(delta);
-        double sinDelta = Math.sin(delta);
-
-        double numerator1 = -gravity * (2 * mass1 + mass2) * Math.sin(theta1)
-                - mass2 * gravity * Math.sin(theta1 - 2 * theta2)
-                - 2 * sinDelta * mass2 * (omega2 * omega2 * length2
-                + omega1 * omega1 * length1 * cosDelta);
-
-        double numerator2 = 2 * sinDelta * (omega1 * omega1 * length1 * (mass1 + mass2)
-                + gravity * (mass1 + mass2) * Math.cos(theta1)
-                + omega2 * omega2 * length2 * mass2 * cosDelta);
-
-        double denominator1 = length1 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * delta));
-        double denominator2 = length2 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * delta));
+        double[] result = new double[2];
+        calculateAccelerations(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2(), result);
+        return result;
+    }
 
+    public void calculateAccelerations(double theta1, double theta2, double omega1, double omega2,
+                                       double[] accelerations) {
+        evaluations++;
+        kernel.accelerations(theta1, theta2, omega1, omega2, accelerations);
+    }
 
-        return new double[] { numerator1 / denominator1, numerator2 / denominator2 };
+    /**
+     * Fused {@link #calculateAccelerations(double, double, double, double, double[])} and
+     * {@link #calculateEnergy(Speed)} of the same state, for callers that need both.
+     */
+    public double calculateAccelerationsAndEnergy(double theta1, double theta2, double omega1, double omega2,
+                                                  double[] accelerations) {
+        evaluations++;
+        return kernel.accelerationsAndEnergy(theta1, theta2, omega1, omega2, accelerations);
     }
 
     public void integrate(Speed speed, double timeStep) {
-        double[] accelerations = calculateAccelerations(speed);
+        calculateAccelerations(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2(),
+                accelerations);
 
         double newOmega1 = speed.getOmega1() + accelerations[0] * timeStep;
         double newOmega2 = speed.getOmega2() + accelerations[1] * timeStep;
@@ -52,59 +59,74 @@ public class Lagrange {
         speed.update(newTheta1, newTheta2, newOmega1, newOmega2);
     }
 
-    public double calculateEnergy(Speed speed) {
-        double theta1 = speed.getTheta1();
-        double theta2 = speed.getTheta2();
-        double omega1 = speed.getOmega1();
-        double omega2 = speed.getOmega2();
-
-        double mass1 = arguments.mass1();
-        double mass2 = arguments.mass2();
-        double length1 = arguments.length1();
-        double length2 = arguments.length2();
-        double gravity = arguments.gravity();
+    public void integrate(double[] state, double timeStep) {
+        calculateAccelerations(state[THETA1], state[THETA2], state[OMEGA1], state[OMEGA2], accelerations);
 
-        double y1 = -length1 * Math.cos(theta1);
-        double y2 = y1 - length2 * Math.cos(theta2);
+        state[OMEGA1] += accelerations[0] * timeStep;
+        state[OMEGA2] += accelerations[1] * timeStep;
 
-        double xSpeed1 = length1 * omega1 * Math.cos(theta1);
-        double ySpeed1 = length1 * omega1 * Math.sin(theta1);
-        double xSpeed2 = xSpeed1 + length2 * omega2 * Math.cos(theta2);
-        double ySpeed2 = ySpeed1 + length2 * omega2 * Math.sin(theta2);
-
-        double kineticEnergy = 0.5 * mass1 * (xSpeed1 * xSpeed1 + ySpeed1 * ySpeed1)
-                + 0.5 * mass2 * (xSpeed2 * xSpeed2 + ySpeed2 * ySpeed2);
-
-        double potentialEnergy = mass1 * gravity * y1 + mass2 * gravity * y2;
-
-        return kineticEnergy + potentialEnergy;
+        state[THETA1] += state[OMEGA1] * timeStep;
+        state[THETA2] += state[OMEGA2] * timeStep;
     }
 
-    public double calculateLagrange(Speed speed) {
-        double theta1 = speed.getTheta1();
-        double theta2 = speed.getTheta2();
-        double omega1 = speed.getOmega1();
-        double omega2 = speed.getOmega2();
+    /**
+     * Jacobian of the equations of motion d/dt (θ1, θ2, ω1, ω2) at the given state, stored row-major
+     * in a 4×4 array indexed by {@link #THETA1}..{@link #OMEGA2}.
+     */
+    public void calculateJacobian(double theta1, double theta2, double omega1, double omega2, double[] jacobian) {
+        evaluations++;
+        kernel.accelerationsAndJacobian(theta1, theta2, omega1, omega2, accelerations, jacobian);
+    }
 
-        double mass1 = arguments.mass1();
-        double mass2 = arguments.mass2();
-        double length1 = arguments.length1();
-        double length2 = arguments.length2();
-        double gravity = arguments.gravity();
+    /**
+     * Advances {@code state} like {@link #integrate(double[], double)} and carries {@code count} tangent
+     * vectors (4 components each, packed in {@code tangents}) through the linearization of that same step.
+     */
+    public void integrate(double[] state, double[] tangents, int count, double timeStep) {
+        calculateJacobian(state[THETA1], state[THETA2], state[OMEGA1], state[OMEGA2], jacobian);
+
+        for (int vector = 0; vector < count; vector++) {
+            int offset = vector * 4;
+            double dTheta1 = tangents[offset + THETA1];
+            double dTheta2 = tangents[offset + THETA2];
+            double dOmega1 = tangents[offset + OMEGA1];
+            double dOmega2 = tangents[offset + OMEGA2];
+
+            double newOmega1 = dOmega1 + timeStep * (jacobian[8] * dTheta1 + jacobian[9] * dTheta2
+                    + jacobian[10] * dOmega1 + jacobian[11] * dOmega2);
+            double newOmega2 = dOmega2 + timeStep * (jacobian[12] * dTheta1 + jacobian[13] * dTheta2
+                    + jacobian[14] * dOmega1 + jacobian[15] * dOmega2);
+
+            tangents[offset + OMEGA1] = newOmega1;
+            tangents[offset + OMEGA2] = newOmega2;
+            tangents[offset + THETA1] = dTheta1 + newOmega1 * timeStep;
+            tangents[offset + THETA2] = dTheta2 + newOmega2 * timeStep;
+        }
+
+        state[OMEGA1] += accelerations[0] * timeStep;
+        state[OMEGA2] += accelerations[1] * timeStep;
+
+        state[THETA1] += state[OMEGA1] * timeStep;
+        state[THETA2] += state[OMEGA2] * timeStep;
+    }
 
-        double y1 = -length1 * Math.cos(theta1);
-        double y2 = y1 - length2 * Math.cos(theta2);
+    public Arguments getArguments() {
+        return arguments;
+    }
 
-        double xSpeed1 = length1 * omega1 * Math.cos(theta1);
-        double ySpeed1 = length1 * omega1 * Math.sin(theta1);
-        double xSpeed2 = xSpeed1 + length2 * omega2 * Math.cos(theta2);
-        double ySpeed2 = ySpeed1 + length2 * omega2 * Math.sin(theta2);
+    public long getEvaluations() {
+        return evaluations;
+    }
 
-        double kineticEnergy = 0.5 * mass1 * (xSpeed1 * xSpeed1 + ySpeed1 * ySpeed1)
-                + 0.5 * mass2 * (xSpeed2 * xSpeed2 + ySpeed2 * ySpeed2);
+    public LagrangeKernel getKernel() {
+        return kernel;
+    }
 
-        double potentialEnergy = mass1 * gravity * y1 + mass2 * gravity * y2;
+    public double calculateEnergy(Speed speed) {
+        return kernel.energy(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2());
+    }
 
-        return kineticEnergy - potentialEnergy;
+    public double calculateLagrange(Speed speed) {
+        return kernel.lagrangian(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2());
     }
 }
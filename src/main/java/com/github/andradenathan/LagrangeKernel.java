@@ -0,0 +1,201 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.Lagrange.OMEGA1;
+import static com.github.andradenathan.Lagrange.OMEGA2;
+import static com.github.andradenathan.Lagrange.THETA1;
+import static com.github.andradenathan.Lagrange.THETA2;
+
+/**
+ * Equations of motion and energy of one {@link Arguments} set, with every product of masses, lengths and
+ * gravity computed once. The accelerations need only sin and cos of θ1 and of δ = θ1 - θ2: sin(θ1 - 2θ2) is
+ * sin(2δ - θ1), cos 2δ is 1 - 2 sin²δ, so the denominator 2m1 + m2 - m2 cos 2δ becomes 2 (m1 + m2 sin²δ), and
+ * the energy's cos θ2 is cos(θ1 - δ). δ itself is taken directly rather than from the products of θ1 and θ2
+ * terms, which keeps its relative accuracy when the arms are nearly aligned. With {@link TrigMode#FAST} those
+ * four values come from {@link FastTrig}. Stateless and safe to share between threads.
+ */
+public final class LagrangeKernel {
+    private final TrigMode trigMode;
+    private final boolean fast;
+
+    private final double inverseLength1;
+    private final double inverseLength2;
+    private final double twoMass1;
+    private final double twoMass2;
+
+    private final double gravityTwoMass1PlusMass2;
+    private final double gravityMass2;
+    private final double twoMass2Length1;
+    private final double twoMass2Length2;
+    private final double twoMassSumLength1;
+    private final double twoGravityMassSum;
+
+    private final double halfMassSumLength1Squared;
+    private final double halfMass2Length2Squared;
+    private final double mass2Length1Length2;
+    private final double gravityMassSumLength1;
+    private final double gravityMass2Length2;
+
+    public LagrangeKernel(Arguments arguments) {
+        this(arguments, TrigMode.MATH);
+    }
+
+    public LagrangeKernel(Arguments arguments, TrigMode trigMode) {
+        this.trigMode = trigMode;
+        this.fast = trigMode == TrigMode.FAST;
+
+        double mass1 = arguments.mass1();
+        double mass2 = arguments.mass2();
+        double length1 = arguments.length1();
+        double length2 = arguments.length2();
+        double gravity = arguments.gravity();
+        double massSum = mass1 + mass2;
+
+        this.inverseLength1 = 1 / length1;
+        this.inverseLength2 = 1 / length2;
+        this.twoMass1 = 2 * mass1;
+        this.twoMass2 = 2 * mass2;
+
+        this.gravityTwoMass1PlusMass2 = gravity * (2 * mass1 + mass2);
+        this.gravityMass2 = gravity * mass2;
+        this.twoMass2Length1 = 2 * mass2 * length1;
+        this.twoMass2Length2 = 2 * mass2 * length2;
+        this.twoMassSumLength1 = 2 * massSum * length1;
+        this.twoGravityMassSum = 2 * gravity * massSum;
+
+        this.halfMassSumLength1Squared = 0.5 * massSum * length1 * length1;
+        this.halfMass2Length2Squared = 0.5 * mass2 * length2 * length2;
+        this.mass2Length1Length2 = mass2 * length1 * length2;
+        this.gravityMassSumLength1 = gravity * massSum * length1;
+        this.gravityMass2Length2 = gravity * mass2 * length2;
+    }
+
+    public TrigMode getTrigMode() {
+        return trigMode;
+    }
+
+    /**
+     * Stores the angular accelerations of both arms in {@code accelerations[0]} and {@code accelerations[1]}.
+     */
+    public void accelerations(double theta1, double theta2, double omega1, double omega2, double[] accelerations) {
+        double delta = theta1 - theta2;
+        accelerations(sin(theta1), cos(theta1), sin(delta), cos(delta), omega1, omega2, accelerations);
+    }
+
+    public double energy(double theta1, double theta2, double omega1, double omega2) {
+        return kineticEnergy(cos(theta1 - theta2), omega1, omega2) + potentialEnergy(cos(theta1), cos(theta2));
+    }
+
+    public double lagrangian(double theta1, double theta2, double omega1, double omega2) {
+        return kineticEnergy(cos(theta1 - theta2), omega1, omega2) - potentialEnergy(cos(theta1), cos(theta2));
+    }
+
+    /**
+     * Stores the accelerations like {@link #accelerations(double, double, double, double, double[])} and returns
+     * the total energy of the same state, sharing the four trigonometric calls.
+     */
+    public double accelerationsAndEnergy(double theta1, double theta2, double omega1, double omega2,
+                                         double[] accelerations) {
+        double delta = theta1 - theta2;
+        double sin1 = sin(theta1);
+        double cos1 = cos(theta1);
+        double sinDelta = sin(delta);
+        double cosDelta = cos(delta);
+        accelerations(sin1, cos1, sinDelta, cosDelta, omega1, omega2, accelerations);
+
+        double cos2 = cos1 * cosDelta + sin1 * sinDelta;
+        return kineticEnergy(cosDelta, omega1, omega2) + potentialEnergy(cos1, cos2);
+    }
+
+    /**
+     * Stores the accelerations like {@link #accelerations(double, double, double, double, double[])} and their
+     * Jacobian d/dt (θ1, θ2, ω1, ω2), row-major in a 4×4 array indexed by {@link Lagrange#THETA1}..
+     * {@link Lagrange#OMEGA2}, from the same four trigonometric calls: cos(θ1 - 2θ2) is cos 2δ cos θ1 +
+     * sin 2δ sin θ1.
+     */
+    public void accelerationsAndJacobian(double theta1, double theta2, double omega1, double omega2,
+                                         double[] accelerations, double[] jacobian) {
+        double delta = theta1 - theta2;
+        double sin1 = sin(theta1);
+        double cos1 = cos(theta1);
+        double sinDelta = sin(delta);
+        double cosDelta = cos(delta);
+        double inverseDenominator = accelerations(sin1, cos1, sinDelta, cosDelta, omega1, omega2, accelerations);
+
+        double sin2Delta = 2 * sinDelta * cosDelta;
+        double cos2Delta = 1 - 2 * sinDelta * sinDelta;
+        double denominatorRate = twoMass2 * sin2Delta * inverseDenominator;
+        double inverseScale1 = inverseDenominator * inverseLength1;
+        double inverseScale2 = inverseDenominator * inverseLength2;
+        double omega1Squared = omega1 * omega1;
+        double omega2Squared = omega2 * omega2;
+
+        double spin = twoMass2Length2 * omega2Squared * cosDelta + twoMass2Length1 * omega1Squared * cos2Delta;
+        double coupling = gravityMass2 * (cos2Delta * cos1 + sin2Delta * sin1);
+        double numerator1Theta1 = -gravityTwoMass1PlusMass2 * cos1 - coupling - spin;
+        double numerator1Theta2 = 2 * coupling + spin;
+
+        double bracket = twoMassSumLength1 * omega1Squared + twoGravityMassSum * cos1
+                + twoMass2Length2 * omega2Squared * cosDelta;
+        double numerator2Theta2 = -cosDelta * bracket + twoMass2Length2 * omega2Squared * sinDelta * sinDelta;
+        double numerator2Theta1 = -numerator2Theta2 - twoGravityMassSum * sinDelta * sin1;
+
+        jacobian[THETA1 * 4 + THETA1] = 0.0;
+        jacobian[THETA1 * 4 + THETA2] = 0.0;
+        jacobian[THETA1 * 4 + OMEGA1] = 1.0;
+        jacobian[THETA1 * 4 + OMEGA2] = 0.0;
+
+        jacobian[THETA2 * 4 + THETA1] = 0.0;
+        jacobian[THETA2 * 4 + THETA2] = 0.0;
+        jacobian[THETA2 * 4 + OMEGA1] = 0.0;
+        jacobian[THETA2 * 4 + OMEGA2] = 1.0;
+
+        jacobian[OMEGA1 * 4 + THETA1] = numerator1Theta1 * inverseScale1 - accelerations[0] * denominatorRate;
+        jacobian[OMEGA1 * 4 + THETA2] = numerator1Theta2 * inverseScale1 + accelerations[0] * denominatorRate;
+        jacobian[OMEGA1 * 4 + OMEGA1] = -2 * sinDelta * twoMass2Length1 * omega1 * cosDelta * inverseScale1;
+        jacobian[OMEGA1 * 4 + OMEGA2] = -2 * sinDelta * twoMass2Length2 * omega2 * inverseScale1;
+
+        jacobian[OMEGA2 * 4 + THETA1] = numerator2Theta1 * inverseScale2 - accelerations[1] * denominatorRate;
+        jacobian[OMEGA2 * 4 + THETA2] = numerator2Theta2 * inverseScale2 + accelerations[1] * denominatorRate;
+        jacobian[OMEGA2 * 4 + OMEGA1] = 2 * sinDelta * twoMassSumLength1 * omega1 * inverseScale2;
+        jacobian[OMEGA2 * 4 + OMEGA2] = 2 * sinDelta * twoMass2Length2 * omega2 * cosDelta * inverseScale2;
+    }
+
+    /**
+     * Returns 1 / (2 (m1 + m2 sin²δ)), which the Jacobian reuses.
+     */
+    private double accelerations(double sin1, double cos1, double sinDelta, double cosDelta,
+                                 double omega1, double omega2, double[] accelerations) {
+        double sinDeltaSquared = sinDelta * sinDelta;
+        // sin(θ1 - 2θ2) = sin 2δ cos θ1 - cos 2δ sin θ1
+        double sinCoupling = 2 * sinDelta * cosDelta * cos1 - (1 - 2 * sinDeltaSquared) * sin1;
+        double omega1Squared = omega1 * omega1;
+        double omega2Squared = omega2 * omega2;
+
+        double numerator1 = -gravityTwoMass1PlusMass2 * sin1 - gravityMass2 * sinCoupling
+                - sinDelta * (twoMass2Length2 * omega2Squared + twoMass2Length1 * omega1Squared * cosDelta);
+        double numerator2 = sinDelta * (twoMassSumLength1 * omega1Squared + twoGravityMassSum * cos1
+                + twoMass2Length2 * omega2Squared * cosDelta);
+        double inverseDenominator = 1 / (twoMass1 + twoMass2 * sinDeltaSquared);
+
+        accelerations[0] = numerator1 * inverseDenominator * inverseLength1;
+        accelerations[1] = numerator2 * inverseDenominator * inverseLength2;
+        return inverseDenominator;
+    }
+
+    private double kineticEnergy(double cosDelta, double omega1, double omega2) {
+        return halfMassSumLength1Squared * omega1 * omega1 + halfMass2Length2Squared * omega2 * omega2
+                + mass2Length1Length2 * omega1 * omega2 * cosDelta;
+    }
+
+    private double potentialEnergy(double cos1, double cos2) {
+        return -gravityMassSumLength1 * cos1 - gravityMass2Length2 * cos2;
+    }
+
+    private double sin(double x) {
+        return fast ? FastTrig.sin(x) : Math.sin(x);
+    }
+
+    private double cos(double x) {
+        return fast ? FastTrig.cos(x) : Math.cos(x);
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.andradenathan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Computes Lyapunov spectra for a batch of parameter sets in parallel and hands each result to the
+ * listener on the calling thread as soon as it completes, in completion order. If one computation fails, the
+ * rest are cancelled and its exception is rethrown.
+ */
+public class LyapunovBatch {
+    private final double timeStep;
+    private final int exponents;
+    private final Speed initialSpeed;
+    private final double duration;
+    private final ExecutorService executor;
+
+    public LyapunovBatch(double timeStep, int exponents, Speed initialSpeed, double duration) {
+        this(timeStep, exponents, initialSpeed, duration, ForkJoinPool.commonPool());
+    }
+
+    public LyapunovBatch(double timeStep, int exponents, Speed initialSpeed, double duration,
+                         ExecutorService executor) {
+        if (!(timeStep > 0) || Double.isInfinite(timeStep)) {
+            throw new IllegalArgumentException("Time step must be positive and finite: " + timeStep);
+        }
+        if (exponents < 1 || exponents > 4) {
+            throw new IllegalArgumentException("Exponent count must be between 1 and 4: " + exponents);
+        }
+        if (!(duration > 0) || Double.isInfinite(duration)) {
+            throw new IllegalArgumentException("Duration must be positive and finite: " + duration);
+        }
+        this.timeStep = timeStep;
+        this.exponents = exponents;
+        this.initialSpeed = initialSpeed.copy();
+        this.duration = duration;
+        this.executor = executor;
+    }
+
+    public void run(List<Arguments> batch, Consumer<LyapunovResult> listener) throws InterruptedException {
+        CompletionService<LyapunovResult> completion = new ExecutorCompletionService<>(executor);
+        List<Future<LyapunovResult>> futures = new ArrayList<>(batch.size());
+        for (Arguments arguments : batch) {
+            futures.add(completion.submit(() -> new LyapunovSpectrum(arguments, timeStep, exponents)
+                    .compute(initialSpeed, duration)));
+        }
+
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                listener.accept(completion.take().get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Lyapunov computation failed", e.getCause());
+        } finally {
+            for (Future<LyapunovResult> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
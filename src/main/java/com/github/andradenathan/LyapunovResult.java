@@ -0,0 +1,29 @@
+package com.github.andradenathan;
+
+public record LyapunovResult(Arguments arguments, double[] exponents, long steps, double simulationTime,
+                             long elapsedNanos) {
+
+    public double maximal() {
+        return exponents[0];
+    }
+
+    public double sum() {
+        double sum = 0;
+        for (double exponent : exponents) {
+            sum += exponent;
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(
+                "g=%.3f, m1=%.3f, L1=%.3f, m2=%.3f, L2=%.3f, t=%.1fs, elapsed=%.3fs, lambda=",
+                arguments.gravity(), arguments.mass1(), arguments.length1(), arguments.mass2(), arguments.length2(),
+                simulationTime, elapsedNanos / 1e9));
+        for (int i = 0; i < exponents.length; i++) {
+            builder.append(i == 0 ? "[" : ", ").append(String.format("%.6f", exponents[i]));
+        }
+        return builder.append("] 1/s").toString();
+    }
+}
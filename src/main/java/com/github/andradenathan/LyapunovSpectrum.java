@@ -0,0 +1,96 @@
+package com.github.andradenathan;
+
+/**
+ * Lyapunov exponents of the double pendulum from the variational equations: tangent vectors are
+ * carried through {@link Lagrange#integrate(double[], double[], int, double)} and re-orthonormalized
+ * with modified Gram–Schmidt every {@code renormalizeInterval} steps. The logarithms of the stretch
+ * factors, averaged over the run, give the exponents in descending order.
+ */
+public class LyapunovSpectrum {
+    public static final int DEFAULT_RENORMALIZE_INTERVAL = 10;
+
+    private final Arguments arguments;
+    private final double timeStep;
+    private final int exponents;
+    private final int renormalizeInterval;
+
+    public LyapunovSpectrum(Arguments arguments, double timeStep, int exponents) {
+        this(arguments, timeStep, exponents, DEFAULT_RENORMALIZE_INTERVAL);
+    }
+
+    public LyapunovSpectrum(Arguments arguments, double timeStep, int exponents, int renormalizeInterval) {
+        if (exponents < 1 || exponents > 4) {
+            throw new IllegalArgumentException("Exponent count must be between 1 and 4: " + exponents);
+        }
+        if (renormalizeInterval < 1) {
+            throw new IllegalArgumentException("Renormalize interval must be positive: " + renormalizeInterval);
+        }
+        this.arguments = arguments;
+        this.timeStep = timeStep;
+        this.exponents = exponents;
+        this.renormalizeInterval = renormalizeInterval;
+    }
+
+    public LyapunovResult compute(Speed initialSpeed, double duration) {
+        Lagrange lagrange = new Lagrange(arguments);
+        double[] state = {
+                initialSpeed.getTheta1(), initialSpeed.getTheta2(), initialSpeed.getOmega1(), initialSpeed.getOmega2()};
+        double[] tangents = new double[exponents * 4];
+        for (int vector = 0; vector < exponents; vector++) {
+            tangents[vector * 4 + vector] = 1.0;
+        }
+
+        double[] logStretch = new double[exponents];
+        long steps = Math.max(renormalizeInterval, Math.round(duration / timeStep / renormalizeInterval)
+                * renormalizeInterval);
+
+        long start = System.nanoTime();
+        for (long step = 1; step <= steps; step++) {
+            lagrange.integrate(state, tangents, exponents, timeStep);
+            if (step % renormalizeInterval == 0) {
+                orthonormalize(tangents, logStretch);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double time = steps * timeStep;
+        double[] result = new double[exponents];
+        for (int vector = 0; vector < exponents; vector++) {
+            result[vector] = logStretch[vector] / time;
+        }
+
+        return new LyapunovResult(arguments, result, steps, time, elapsed);
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public int getExponents() {
+        return exponents;
+    }
+
+    private void orthonormalize(double[] tangents, double[] logStretch) {
+        for (int vector = 0; vector < exponents; vector++) {
+            int offset = vector * 4;
+            for (int previous = 0; previous < vector; previous++) {
+                int other = previous * 4;
+                double projection = dot(tangents, offset, other);
+                for (int i = 0; i < 4; i++) {
+                    tangents[offset + i] -= projection * tangents[other + i];
+                }
+            }
+
+            double norm = Math.sqrt(dot(tangents, offset, offset));
+            logStretch[vector] += Math.log(norm);
+            for (int i = 0; i < 4; i++) {
+                tangents[offset + i] /= norm;
+            }
+        }
+    }
+
+    private static double dot(double[] tangents, int first, int second) {
+        return tangents[first] * tangents[second] + tangents[first + 1] * tangents[second + 1]
+                + tangents[first + 2] * tangents[second + 2] + tangents[first + 3] * tangents[second + 3];
+    }
+}
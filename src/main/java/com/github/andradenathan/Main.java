@@ -1,20 +1,456 @@
 package com.github.andradenathan;
 
+import javax.imageio.ImageIO;
+import javax.management.JMException;
 import javax.swing.*;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Main {
+    private static final long DEFAULT_HEADLESS_STEPS = 10_000_000L;
+    private static final int DEFAULT_ENSEMBLE_STEPS = 100;
+    private static final double DEFAULT_ENSEMBLE_SPREAD = 1e-9;
+    private static final int DEFAULT_FRACTAL_WIDTH = 1920;
+    private static final int DEFAULT_FRACTAL_HEIGHT = 1080;
+    private static final double DEFAULT_FRACTAL_MAX_TIME = 200.0;
+    private static final double DEFAULT_LYAPUNOV_DURATION = 1000.0;
+    private static final double DEFAULT_SWEEP_DURATION = 60.0;
+    private static final int DEFAULT_EXPORT_WIDTH = 1050;
+    private static final int DEFAULT_EXPORT_HEIGHT = 700;
+    private static final double DEFAULT_EXPORT_DURATION = 10.0;
+    private static final int DEFAULT_EXPORT_FPS = 60;
+    private static final int DEFAULT_GIF_FPS = 50;
+
     public static void main(String[] args) {
+        startFlightRecording(args);
+
+        if (hasFlag(args, "--fractal")) {
+            runFractal(args);
+            return;
+        }
+
+        if (hasFlag(args, "--lyapunov") || parseStringOption(args, "--lyapunov=", null) != null) {
+            runLyapunov(args);
+            return;
+        }
+
+        String sweep = parseStringOption(args, "--sweep=", null);
+        if (sweep != null) {
+            runSweep(args, sweep);
+            return;
+        }
+
+        String export = parseStringOption(args, "--export=", null);
+        if (export != null) {
+            runExport(args, export);
+            return;
+        }
+
+        if (hasFlag(args, "--headless")) {
+            runHeadless(args);
+            return;
+        }
+
+        String replay = parseStringOption(args, "--replay=", null);
+        if (replay != null) {
+            SwingUtilities.invokeLater(() -> createReplayGui(args, replay));
+            return;
+        }
+
+        if (parseLongOption(args, "--ensemble=", 0) > 0) {
+            SwingUtilities.invokeLater(() -> createEnsembleGui(args));
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             Arguments arguments = parseArguments(args);
             Simulation simulation = parseSimulation(args);
             Speed initialSpeed = parseSpeed(args);
 
-            createGui(initialSpeed, simulation, arguments);
+            PhysicsLoop physicsLoop = new PhysicsLoop(arguments, simulation, initialSpeed);
+            physicsLoop.setTimeScale(parseDoubleOption(args, "--timescale=", PhysicsLoop.MIN_TIME_SCALE));
+
+            FlightRecorder recorder = openRecorder(args, arguments, simulation);
+            if (recorder != null) {
+                physicsLoop.setRecorder(recorder);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    physicsLoop.setRecorder(null);
+                    try {
+                        recorder.close();
+                    } catch (IOException e) {
+                        System.err.println("Erro ao gravar simulação: " + e.getMessage());
+                    }
+                }));
+            }
+
+            createGui(initialSpeed, simulation, arguments, physicsLoop);
         });
     }
 
+    private static void createReplayGui(String[] args, String file) {
+        FlightRecording recording;
+        try {
+            recording = new FlightRecording(Path.of(file));
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir gravação: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        RecordingPlayer player = new RecordingPlayer(recording);
+        player.setTimeScale(parseDoubleOption(args, "--timescale=", PhysicsLoop.MIN_TIME_SCALE));
+
+        Speed initialSpeed = new Speed(0, 0, 0, 0);
+        recording.read(0, initialSpeed);
+
+        createGui(initialSpeed, recording.getSimulation(), recording.getArguments(), player);
+    }
+
+    private static void runHeadless(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        Arguments arguments = parseArguments(args);
+        Simulation simulation = parseSimulation(args);
+        Speed initialSpeed = parseSpeed(args);
+        int ensembleSize = (int) parseLongOption(args, "--ensemble=", 0);
+        if (ensembleSize > 0) {
+            runHeadlessEnsemble(args, arguments, simulation, initialSpeed, ensembleSize);
+            return;
+        }
+
+        long steps = parseLongOption(args, "--steps=", DEFAULT_HEADLESS_STEPS);
+
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, initialSpeed);
+        System.out.println("Headless simulation: " + simulation);
+
+        FlightRecorder recorder = openRecorder(args, arguments, simulation);
+        try (recorder) {
+            engine.setRecorder(recorder);
+            System.out.println(engine.run(steps));
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar simulação: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            // The recorder is closed by now, so the steps before the failure are kept.
+            System.err.println("Erro ao simular: " + e.getMessage());
+            System.exit(1);
+        }
+        if (recorder != null) {
+            System.out.println("Recorded " + recorder.getRecords() + " states");
+        }
+
+        if (engine.getIntegrator() instanceof AdaptiveIntegrator adaptive) {
+            System.out.printf("adaptive: atol=%.1e, rtol=%.1e, accepted=%d, rejected=%d, h=%.3e s%n",
+                    adaptive.getTolerance().absolute(), adaptive.getTolerance().relative(),
+                    adaptive.getAcceptedSteps(), adaptive.getRejectedSteps(), adaptive.getStepSize());
+        }
+    }
+
+    private static void runHeadlessEnsemble(String[] args, Arguments arguments, Simulation simulation,
+                                            Speed initialSpeed, int size) {
+        if (!isEnsembleIntegrator(simulation)) {
+            return;
+        }
+        int steps = (int) parseLongOption(args, "--steps=", DEFAULT_ENSEMBLE_STEPS);
+        double spread = parseDoubleOption(args, "--spread=", DEFAULT_ENSEMBLE_SPREAD);
+
+        EnsembleKernel kernel = parseKernel(args, arguments, simulation);
+
+        EnsembleEngine engine = EnsembleEngine.spread(arguments, simulation, initialSpeed, size, spread, kernel);
+
+        long start = System.nanoTime();
+        engine.step(steps);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        Speed first = new Speed(0, 0, 0, 0);
+        Speed last = new Speed(0, 0, 0, 0);
+        engine.copyInto(0, first);
+        engine.copyInto(size - 1, last);
+
+        System.out.println("Headless ensemble: " + simulation + ", pendulums=" + size + ", spread=" + spread
+                + ", kernel=" + kernel.getName());
+        System.out.printf("steps=%d, elapsed=%.3fs, pendulum-steps/s=%.0f%n",
+                steps, elapsed, (double) size * steps / elapsed);
+        System.out.printf("first: theta1=%.6f theta2=%.6f, last: theta1=%.6f theta2=%.6f%n",
+                first.getTheta1(), first.getTheta2(), last.getTheta1(), last.getTheta2());
+    }
+
+    /**
+     * The ensemble kernels only step semi-implicit Euler, so any other {@code --integrator=} is refused rather
+     * than reported as used.
+     */
+    private static boolean isEnsembleIntegrator(Simulation simulation) {
+        if (simulation.getIntegrator() == IntegratorType.EULER) {
+            return true;
+        }
+        System.err.println("--ensemble always steps semi-implicit Euler: --integrator="
+                + simulation.getIntegrator().getName());
+        return false;
+    }
+
+    private static EnsembleKernel parseKernel(String[] args, Arguments arguments, Simulation simulation) {
+        EnsembleKernel kernel = EnsembleKernel.preferred(arguments, simulation.getTrigMode());
+        String kernelName = parseStringOption(args, "--kernel=", null);
+        if (kernelName != null) {
+            try {
+                kernel = EnsembleKernel.fromName(kernelName, arguments, simulation.getTrigMode());
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage() + ", using the " + kernel.getName() + " kernel.");
+            }
+        }
+        return kernel;
+    }
+
+    private static void runFractal(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        Arguments arguments = parseArguments(args);
+        Simulation simulation = parseSimulation(args);
+        int width = (int) parseLongOption(args, "--width=", DEFAULT_FRACTAL_WIDTH);
+        int height = (int) parseLongOption(args, "--height=", DEFAULT_FRACTAL_HEIGHT);
+        double maxTime = parseDoubleOption(args, "--max-time=", DEFAULT_FRACTAL_MAX_TIME);
+        String output = parseStringOption(args, "--output=", "flip-fractal.png");
+
+        FlipFractal fractal = new FlipFractal(arguments, simulation.getTimeStep(), maxTime, width, height,
+                simulation.getTrigMode(), ForkJoinPool.commonPool());
+        float[] flipTimes = new float[width * height];
+
+        System.out.println("Flip fractal: " + simulation + ", maxTime=" + maxTime + "s, threads="
+                + ForkJoinPool.getCommonPoolParallelism());
+        System.out.println(fractal.compute(flipTimes));
+
+        try {
+            ImageIO.write(fractal.toImage(flipTimes), "png", new File(output));
+            System.out.println("Wrote " + output);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar imagem: " + e.getMessage());
+        }
+    }
+
+    private static void runExport(String[] args, String output) {
+        System.setProperty("java.awt.headless", "true");
+
+        Arguments arguments = parseArguments(args);
+        Simulation simulation = parseSimulation(args);
+        Speed initialSpeed = parseSpeed(args);
+        Path path = Path.of(output);
+        boolean gif = FrameExporter.isGif(path);
+        int width = (int) parseLongOption(args, "--width=", DEFAULT_EXPORT_WIDTH);
+        int height = (int) parseLongOption(args, "--height=", DEFAULT_EXPORT_HEIGHT);
+        int fps = (int) parseLongOption(args, "--fps=", gif ? DEFAULT_GIF_FPS : DEFAULT_EXPORT_FPS);
+        double duration = parseDoubleOption(args, "--duration=", DEFAULT_EXPORT_DURATION);
+        double timeScale = parseDoubleOption(args, "--timescale=", PhysicsLoop.MIN_TIME_SCALE);
+        if (gif && fps > DEFAULT_GIF_FPS) {
+            System.err.println("GIF delays are in hundredths of a second; most viewers slow down frames"
+                    + " shorter than 2, so use --fps=" + DEFAULT_GIF_FPS + " or less.");
+        }
+
+        System.out.println("Export: " + simulation + ", " + width + "x" + height + ", fps=" + fps
+                + ", duration=" + duration + "s, threads=" + ForkJoinPool.getCommonPoolParallelism());
+        try {
+            FrameExporter exporter = new FrameExporter(arguments, simulation, initialSpeed, width, height, fps,
+                    timeScale);
+            System.out.println(exporter.export(path, duration));
+            System.out.println("Wrote " + output);
+        } catch (IOException e) {
+            System.err.println("Erro ao exportar animação: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static void runLyapunov(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        List<Arguments> batch = new ArrayList<>();
+        String files = parseStringOption(args, "--lyapunov=", "");
+        for (String file : files.split(",")) {
+            if (file.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(ArgumentsFileParser.fromFile(file.trim()));
+            } catch (IOException e) {
+                System.err.println("Erro ao ler arquivo de configuração: " + e.getMessage());
+            }
+        }
+        if (batch.isEmpty()) {
+            batch.add(parseArguments(args));
+        }
+
+        for (String arg : args) {
+            if (arg.startsWith("--integrator=") || arg.startsWith("--trig=")) {
+                System.err.println("--lyapunov always steps the variational equations with semi-implicit Euler"
+                        + " and Math trigonometry: " + arg);
+                return;
+            }
+        }
+
+        Simulation simulation = parseSimulation(args);
+        Speed initialSpeed = parseSpeed(args);
+        int exponents = (int) parseLongOption(args, "--exponents=", 4);
+        double duration = parseDoubleOption(args, "--duration=", DEFAULT_LYAPUNOV_DURATION);
+
+        try {
+            LyapunovBatch lyapunov = new LyapunovBatch(simulation.getTimeStep(), exponents, initialSpeed, duration);
+            System.out.println("Lyapunov spectrum: dt=" + simulation.getTimeStep() + ", configurations="
+                    + batch.size() + ", duration=" + duration + "s, exponents=" + exponents);
+            lyapunov.run(batch, System.out::println);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static void runSweep(String[] args, String file) {
+        System.setProperty("java.awt.headless", "true");
+
+        ParameterSweep sweep;
+        try {
+            sweep = SweepFileParser.fromFile(file);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de configuração: " + e.getMessage());
+            return;
+        }
+
+        Simulation simulation = parseSimulation(args);
+        double duration = parseDoubleOption(args, "--duration=", DEFAULT_SWEEP_DURATION);
+        String output = parseStringOption(args, "--output=", "sweep.csv");
+
+        System.out.println("Parameter sweep: " + sweep + ", jobs=" + sweep.size() + ", integrator="
+                + simulation.getIntegrator().getName() + ", duration=" + duration + "s, threads="
+                + ForkJoinPool.getCommonPoolParallelism());
+
+        long start = System.nanoTime();
+        AtomicLong failed = new AtomicLong();
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(output))) {
+            writer.write(SweepResult.HEADER);
+            writer.newLine();
+            new SweepRunner(simulation, duration).run(sweep, result -> {
+                if (result.isFailed()) {
+                    failed.incrementAndGet();
+                }
+                try {
+                    writer.write(result.toRow());
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Erro ao salvar resultados: " + e.getMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d rows to %s, elapsed=%.3fs, jobs/s=%.1f%n",
+                sweep.size(), output, elapsed, sweep.size() / elapsed);
+        if (failed.get() > 0) {
+            System.err.println(failed.get() + " jobs failed, see the error column of " + output);
+        }
+    }
+
+    /**
+     * Starts a JDK Flight Recorder recording with the default settings and the simulation events, written
+     * to {@code --jfr=file} (simulation.jfr for a bare {@code --jfr}) when the JVM exits.
+     */
+    private static void startFlightRecording(String[] args) {
+        String path = hasFlag(args, "--jfr") ? "simulation.jfr" : parseStringOption(args, "--jfr=", null);
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("Double Pendulum");
+            recording.enable(StepChunkEvent.class);
+            recording.enable(FrameEvent.class);
+            recording.enable(TrajectoryEvictionEvent.class);
+            recording.setDestination(Path.of(path));
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.out.println("Flight recording to " + path);
+        } catch (IOException | ParseException | IllegalStateException e) {
+            System.err.println("Erro ao iniciar o Flight Recorder: " + e.getMessage());
+        }
+    }
+
+    private static FlightRecorder openRecorder(String[] args, Arguments arguments, Simulation simulation) {
+        String path = parseStringOption(args, "--record=", null);
+        if (path == null) {
+            return null;
+        }
+
+        try {
+            return new FlightRecorder(Path.of(path), arguments, simulation);
+        } catch (IOException e) {
+            System.err.println("Erro ao criar gravação: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean hasFlag(String[] args, String flag) {
+        for (String arg : args) {
+            if (arg.equals(flag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseLongOption(String[] args, String prefix, long defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                try {
+                    return Long.parseLong(arg.substring(prefix.length()).replace("_", ""));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid value: " + arg);
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String parseStringOption(String[] args, String prefix, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    private static double parseDoubleOption(String[] args, String prefix, double defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                try {
+                    return Double.parseDouble(arg.substring(prefix.length()));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid value: " + arg);
+                }
+            }
+        }
+        return defaultValue;
+    }
+
     private static Arguments parseArguments(String[] args) {
         for (String arg : args) {
             if (arg.startsWith("--config=")) {
@@ -75,6 +511,45 @@ public class Main {
     }
 
     private static Simulation parseSimulation(String[] args) {
+        Simulation simulation = parseSimulationPreset(args);
+
+        for (String arg : args) {
+            if (arg.startsWith("--integrator=")) {
+                try {
+                    simulation = simulation.withIntegrator(
+                            IntegratorType.fromName(arg.substring("--integrator=".length())));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid value: " + arg);
+                }
+            } else if (arg.startsWith("--atol=") || arg.startsWith("--rtol=")) {
+                try {
+                    double value = Double.parseDouble(arg.substring("--atol=".length()));
+                    Tolerance tolerance = simulation.getTolerance();
+                    simulation = simulation.withTolerance(arg.startsWith("--atol=")
+                            ? new Tolerance(value, tolerance.relative())
+                            : new Tolerance(tolerance.absolute(), value));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid value: " + arg);
+                }
+            } else if (arg.startsWith("--trig=")) {
+                try {
+                    simulation = simulation.withTrigMode(TrigMode.fromName(arg.substring("--trig=".length())));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid value: " + arg);
+                }
+            } else if (arg.startsWith("--dt=")) {
+                try {
+                    simulation = simulation.withTimeStep(Double.parseDouble(arg.substring("--dt=".length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid value: " + arg);
+                }
+            }
+        }
+
+        return simulation;
+    }
+
+    private static Simulation parseSimulationPreset(String[] args) {
         for (String arg : args) {
             switch (arg) {
                 case "--sim=accurate", "--accurate" -> {
@@ -114,28 +589,55 @@ public class Main {
         return Speed.usingDefault();
     }
 
-    private static void createGui(Speed initialSpeed, Simulation simulation, Arguments arguments) {
+    private static void createEnsembleGui(String[] args) {
+        Arguments arguments = parseArguments(args);
+        Simulation simulation = parseSimulation(args);
+        Speed initialSpeed = parseSpeed(args);
+        int size = (int) parseLongOption(args, "--ensemble=", 0);
+        double spread = parseDoubleOption(args, "--spread=", DEFAULT_ENSEMBLE_SPREAD);
+        if (!isEnsembleIntegrator(simulation)) {
+            return;
+        }
+
+        EnsembleLoop loop = new EnsembleLoop(arguments, simulation, initialSpeed, size, spread,
+                parseKernel(args, arguments, simulation));
+        loop.setTimeScale(parseDoubleOption(args, "--timescale=", PhysicsLoop.MIN_TIME_SCALE));
+
+        EnsembleView view = new EnsembleView(arguments, simulation, loop);
+        showWindow(view, view);
+    }
+
+    private static void createGui(Speed initialSpeed, Simulation simulation, Arguments arguments, StateSource source) {
+        DoublePendulum doublePendulum = new DoublePendulum(arguments, simulation, initialSpeed, source);
+        try {
+            doublePendulum.getMetrics().register();
+        } catch (JMException e) {
+            System.err.println("Erro ao registrar métricas: " + e.getMessage());
+        }
+
+        showWindow(doublePendulum, doublePendulum);
+    }
+
+    private static void showWindow(JComponent view, PendulumControls controls) {
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception ignored) {}
 
         JFrame frame = new JFrame("Double Pendulum Simulation");
-        DoublePendulum doublePendulum = new DoublePendulum(arguments, simulation, initialSpeed);
-
         frame.setUndecorated(true);
 
         JPanel titleBar = createCustomTitleBar(frame);
 
         frame.setLayout(new BorderLayout());
         frame.add(titleBar, BorderLayout.NORTH);
-        frame.add(doublePendulum, BorderLayout.CENTER);
+        frame.add(view, BorderLayout.CENTER);
 
         frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setLocationRelativeTo(null);
         frame.setResizable(false);
 
-        configureKeys(frame, doublePendulum);
+        configureKeys(frame, controls);
 
         frame.setVisible(true);
         frame.requestFocus();
@@ -223,13 +725,17 @@ public class Main {
         return button;
     }
 
-    private static void configureKeys(JFrame frame, DoublePendulum doublePendulum) {
+    private static void configureKeys(JFrame frame, PendulumControls controls) {
         frame.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent event) {
                 switch (event.getKeyCode()) {
-                    case KeyEvent.VK_R -> doublePendulum.reload();
-                    case KeyEvent.VK_SPACE -> doublePendulum.togglePause();
+                    case KeyEvent.VK_R -> controls.reload();
+                    case KeyEvent.VK_SPACE -> controls.togglePause();
+                    case KeyEvent.VK_PLUS, KeyEvent.VK_EQUALS, KeyEvent.VK_ADD -> controls.increaseTimeScale();
+                    case KeyEvent.VK_MINUS, KeyEvent.VK_SUBTRACT -> controls.decreaseTimeScale();
+                    case KeyEvent.VK_LEFT -> controls.rewind();
+                    case KeyEvent.VK_RIGHT -> controls.fastForward();
                     case KeyEvent.VK_ESCAPE -> System.exit(0);
                 }
             }
@@ -0,0 +1,92 @@
+package com.github.andradenathan;
+
+/**
+ * The cartesian product of the values of g, m1, L1, m2, L2, θ1, θ2 and dt. Jobs are never stored: job
+ * {@code i} is decoded from its index as a mixed-radix number whose fastest digit is dt, so a sweep of
+ * millions of jobs costs no more memory than its axes.
+ */
+public class ParameterSweep {
+    public static final String[] KEYS = {"g", "m1", "L1", "m2", "L2", "theta1", "theta2", "dt"};
+
+    private final SweepAxis[] axes;
+    private final long size;
+
+    /**
+     * @param axes one axis per entry of {@link #KEYS}, in that order
+     */
+    public ParameterSweep(SweepAxis... axes) {
+        if (axes.length != KEYS.length) {
+            throw new IllegalArgumentException("Expected " + KEYS.length + " axes, got " + axes.length);
+        }
+
+        for (int i = 0; i < KEYS.length; i++) {
+            checkAxis(KEYS[i], axes[i]);
+        }
+
+        long size = 1;
+        for (SweepAxis axis : axes) {
+            try {
+                size = Math.multiplyExact(size, axis.size());
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Sweep has more than " + Long.MAX_VALUE + " jobs");
+            }
+        }
+        this.axes = axes.clone();
+        this.size = size;
+    }
+
+    /**
+     * Rejects values of {@code key} that cannot run: non-finite values, and masses, lengths, g and dt that are
+     * not positive. A zero dt never finishes a job, and a zero or negative g, mass or length leaves no energy
+     * scale to measure the energy error against.
+     */
+    public static void checkAxis(String key, SweepAxis axis) {
+        if (!axis.isFinite()) {
+            throw new IllegalArgumentException(key + " must be finite: " + axis);
+        }
+        if (!key.startsWith("theta") && !(axis.min() > 0)) {
+            throw new IllegalArgumentException(key + " must be positive: " + axis);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public SweepAxis getAxis(String key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(key)) {
+                return axes[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown sweep parameter: " + key);
+    }
+
+    public SweepJob job(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Job " + index + " out of bounds for size " + size);
+        }
+
+        double[] values = new double[axes.length];
+        long remainder = index;
+        for (int i = axes.length - 1; i >= 0; i--) {
+            int axisSize = axes[i].size();
+            values[i] = axes[i].get((int) (remainder % axisSize));
+            remainder /= axisSize;
+        }
+
+        return new SweepJob(index, new Arguments(values[0], values[1], values[2], values[3], values[4]),
+                values[5], values[6], values[7]);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < KEYS.length; i++) {
+            if (axes[i].size() > 1) {
+                builder.append(builder.isEmpty() ? "" : ", ").append(KEYS[i]).append('=').append(axes[i]);
+            }
+        }
+        return builder.isEmpty() ? "single job" : builder.toString();
+    }
+}
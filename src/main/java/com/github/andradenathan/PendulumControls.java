@@ -0,0 +1,24 @@
+package com.github.andradenathan;
+
+/**
+ * Keyboard actions of a pendulum view.
+ */
+interface PendulumControls {
+
+    void reload();
+
+    void togglePause();
+
+    void increaseTimeScale();
+
+    void decreaseTimeScale();
+
+    /**
+     * Jumps back a few seconds. Views that cannot seek ignore it.
+     */
+    default void rewind() {
+    }
+
+    default void fastForward() {
+    }
+}
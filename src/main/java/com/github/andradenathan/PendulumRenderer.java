@@ -0,0 +1,392 @@
+package com.github.andradenathan;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+
+/**
+ * Draws the scene of {@link DoublePendulum}: the grid and sidebar that only change with the size of the
+ * canvas, the state and run values in the sidebar, the trail and the arms. The canvas is either the panel or
+ * an offscreen image, as in {@link FrameExporter}. A renderer keeps the sidebar layout and reuses its trail
+ * paths between frames, so it must not be shared between threads.
+ */
+final class PendulumRenderer {
+    static final int SIDEBAR_WIDTH = 250;
+    static final int CONTROLS_HEIGHT = 40;
+    static final Color BACKGROUND_COLOR = new Color(18, 18, 24);
+    static final Color SIDEBAR_COLOR = new Color(28, 28, 35);
+    static final Color GRID_COLOR = new Color(40, 40, 50);
+    static final Color TEXT_COLOR = new Color(220, 220, 230);
+    static final Color ACCENT_COLOR = new Color(100, 200, 255);
+
+    private static final Color HALO_COLOR = new Color(60, 60, 80, 100);
+    private static final Color CONTROLS_COLOR = new Color(0, 0, 0, 150);
+    private static final Color RUNNING_COLOR = new Color(100, 255, 150);
+    private static final Color PAUSED_COLOR = new Color(255, 150, 100);
+    private static final Color ARM_COLOR = new Color(200, 200, 210);
+    private static final Color ARM_SHADOW_COLOR = new Color(0, 0, 0, 50);
+    private static final Color BALL_SHADOW_COLOR = new Color(0, 0, 0, 60);
+    private static final Color BALL_HIGHLIGHT_COLOR = new Color(255, 255, 255, 150);
+
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 18);
+    private static final Font HEADER_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font VALUE_FONT = new Font("Segoe UI", Font.BOLD, 13);
+    private static final Font KEY_FONT = new Font("Segoe UI", Font.BOLD, 12);
+    private static final Font TEXT_FONT = new Font("Segoe UI", Font.PLAIN, 12);
+
+    private static final BasicStroke GRID_STROKE = new BasicStroke(1);
+    private static final BasicStroke SIDEBAR_STROKE = new BasicStroke(2);
+    private static final BasicStroke ARM_STROKE = new BasicStroke(4);
+    private static final BasicStroke ARM_SHADOW_STROKE = new BasicStroke(5);
+    private static final BasicStroke BALL_OUTLINE_STROKE = new BasicStroke(2);
+
+    private static final Ball PIVOT_BALL = Ball.of(10, new Color(150, 150, 160));
+    private static final Ball FIRST_BALL = Ball.of(18, new Color(255, 100, 100));
+    private static final Ball SECOND_BALL = Ball.of(15, new Color(100, 255, 150));
+
+    private static final int CONTROLS_WIDTH = 560;
+    private static final int SEEK_CONTROLS_WIDTH = 610;
+    private static final int LINE_HEIGHT = 25;
+    private static final int TRAIL_SHADES = 32;
+    private static final double TRAIL_MIN_SEGMENT = 1.0;
+    private static final Color[] TRAIL_PALETTE = createTrailPalette();
+    private static final BasicStroke TRAIL_STROKE =
+            new BasicStroke(2.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final Lagrange lagrange;
+    private final Path2D.Float[] trailPaths = new Path2D.Float[TRAIL_SHADES];
+
+    private int stateY;
+    private int energyY;
+    private int framesY;
+    private int pointsY;
+    private int timeScaleY;
+    private int statusY;
+
+    PendulumRenderer(Arguments arguments, Simulation simulation) {
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.lagrange = new Lagrange(arguments);
+        for (int shade = 0; shade < TRAIL_SHADES; shade++) {
+            trailPaths[shade] = new Path2D.Float();
+        }
+    }
+
+    void drawBackground(Graphics2D g2d, int width, int height) {
+        g2d.setColor(BACKGROUND_COLOR);
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setColor(GRID_COLOR);
+        g2d.setStroke(GRID_STROKE);
+
+        int gridSize = 50;
+        for (int x = 0; x < width - SIDEBAR_WIDTH; x += gridSize) {
+            g2d.drawLine(x, 0, x, height);
+        }
+        for (int y = 0; y < height; y += gridSize) {
+            g2d.drawLine(0, y, width - SIDEBAR_WIDTH, y);
+        }
+
+
+        int originX = simulation.getXOrigin();
+        int originY = simulation.getYOrigin();
+        g2d.setColor(HALO_COLOR);
+        g2d.fillOval(originX - 100, originY - 100, 200, 200);
+    }
+
+    /**
+     * Draws the labels of the sidebar and lays out the values drawn on top of them every frame.
+     */
+    void drawSidebar(Graphics2D g2d, int width, int height) {
+        int sidebarX = width - SIDEBAR_WIDTH;
+
+        g2d.setColor(SIDEBAR_COLOR);
+        g2d.fillRect(sidebarX, 0, SIDEBAR_WIDTH, height);
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setStroke(SIDEBAR_STROKE);
+        g2d.drawLine(sidebarX, 0, sidebarX, height);
+
+        int x = sidebarX + 15;
+        int y = 30;
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setFont(TITLE_FONT);
+        g2d.drawString("Double Pendulum", x, y);
+        y += 35;
+
+        g2d.setColor(GRID_COLOR);
+        g2d.fillRect(x, y, SIDEBAR_WIDTH - 30, 2);
+        y += 20;
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setFont(HEADER_FONT);
+        g2d.drawString("Parameters", x, y);
+        y += 20;
+
+        g2d.setColor(TEXT_COLOR);
+        g2d.setFont(TEXT_FONT);
+        g2d.drawString(String.format("Mass 1: %.2f kg", arguments.mass1()), x, y);
+        y += LINE_HEIGHT;
+        g2d.drawString(String.format("Mass 2: %.2f kg", arguments.mass2()), x, y);
+        y += LINE_HEIGHT;
+        g2d.drawString(String.format("Length 1: %.1f m", arguments.length1() / 100), x, y);
+        y += LINE_HEIGHT;
+        g2d.drawString(String.format("Length 2: %.1f m", arguments.length2() / 100), x, y);
+        y += LINE_HEIGHT;
+        g2d.drawString(String.format("Gravity: %.2f m/s²", arguments.gravity()), x, y);
+        y += 30;
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setFont(HEADER_FONT);
+        g2d.drawString("Current State", x, y);
+        y += 20;
+
+        stateY = y;
+        y += 3 * LINE_HEIGHT + 30;
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setFont(HEADER_FONT);
+        g2d.drawString("Energy", x, y);
+        y += 20;
+
+        energyY = y;
+        y += 30;
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setFont(HEADER_FONT);
+        g2d.drawString("Simulation", x, y);
+        y += 20;
+
+        framesY = y;
+        y += LINE_HEIGHT;
+
+        g2d.setColor(TEXT_COLOR);
+        g2d.setFont(TEXT_FONT);
+        g2d.drawString(String.format("dt: %.3f s", simulation.getTimeStep()), x, y);
+        y += LINE_HEIGHT;
+
+        pointsY = y;
+        y += 2 * LINE_HEIGHT;
+
+        timeScaleY = y;
+        y += 30;
+
+        statusY = y;
+    }
+
+    /**
+     * Draws the angles, angular velocities and total energy of {@code speed}.
+     */
+    void drawState(Graphics2D g2d, int width, Speed speed) {
+        int x = width - SIDEBAR_WIDTH + 15;
+
+        g2d.setColor(TEXT_COLOR);
+        g2d.setFont(TEXT_FONT);
+        g2d.drawString(String.format("θ₁: %.2f°", speed.getTheta1InDegrees()), x, stateY);
+        g2d.drawString(String.format("θ₂: %.2f°", speed.getTheta2InDegrees()), x, stateY + LINE_HEIGHT);
+        g2d.drawString(String.format("ω₁: %.2f rad/s", speed.getOmega1()), x, stateY + 2 * LINE_HEIGHT);
+        g2d.drawString(String.format("ω₂: %.2f rad/s", speed.getOmega2()), x, stateY + 3 * LINE_HEIGHT);
+
+        double energy = lagrange.calculateEnergy(speed);
+        g2d.setColor(RUNNING_COLOR);
+        g2d.setFont(VALUE_FONT);
+        g2d.drawString(String.format("Total: %.3f J", energy), x, energyY);
+    }
+
+    /**
+     * Draws the frame count, {@code detail} and {@code time} below it and the time scale, followed by the
+     * achieved one when it falls short of the request.
+     */
+    void drawRun(Graphics2D g2d, int width, long frames, String detail, String time,
+                 double requested, double achieved) {
+        int x = width - SIDEBAR_WIDTH + 15;
+
+        g2d.setColor(TEXT_COLOR);
+        g2d.setFont(TEXT_FONT);
+        g2d.drawString(String.format("Frames: %d", frames), x, framesY);
+        g2d.drawString(detail, x, pointsY);
+        g2d.drawString(time, x, pointsY + LINE_HEIGHT);
+
+        String speed = String.format("Speed: %.0fx", requested);
+        g2d.drawString(speed, x, timeScaleY);
+        if (achieved < 0.95 * requested) {
+            g2d.setColor(PAUSED_COLOR);
+            g2d.drawString(String.format(" (achieved %.0fx)", achieved),
+                    x + g2d.getFontMetrics().stringWidth(speed), timeScaleY);
+        }
+    }
+
+    void drawStatus(Graphics2D g2d, int width, String status, boolean paused) {
+        g2d.setColor(paused ? PAUSED_COLOR : RUNNING_COLOR);
+        g2d.setFont(VALUE_FONT);
+        g2d.drawString(status, width - SIDEBAR_WIDTH + 15, statusY);
+    }
+
+    /**
+     * Draws the trail with older points fading out. Takes the {@code trajectory} monitor while reading it.
+     */
+    void drawTrajectory(Graphics2D g2d, Trajectory trajectory) {
+        synchronized (trajectory) {
+            buildTrailPaths(trajectory);
+        }
+
+        g2d.setStroke(TRAIL_STROKE);
+        for (int shade = 0; shade < TRAIL_SHADES; shade++) {
+            if (trailPaths[shade].getCurrentPoint() != null) {
+                g2d.setColor(TRAIL_PALETTE[shade]);
+                g2d.draw(trailPaths[shade]);
+            }
+        }
+    }
+
+    private void buildTrailPaths(Trajectory trajectory) {
+        for (Path2D.Float path : trailPaths) {
+            path.reset();
+        }
+
+        int size = trajectory.size();
+
+        if (size < 2) return;
+
+        int bucket = -1;
+        double lastX = 0;
+        double lastY = 0;
+        for (int point = 1; point < size; point++) {
+            int pointBucket = Math.min(TRAIL_SHADES - 1, (int) ((long) point * TRAIL_SHADES / size));
+            double x = trajectory.getX(point);
+            double y = trajectory.getY(point);
+
+            if (pointBucket != bucket) {
+                bucket = pointBucket;
+                lastX = trajectory.getX(point - 1);
+                lastY = trajectory.getY(point - 1);
+                trailPaths[bucket].moveTo(lastX, lastY);
+            } else if (Math.abs(x - lastX) < TRAIL_MIN_SEGMENT && Math.abs(y - lastY) < TRAIL_MIN_SEGMENT
+                    && point < size - 1) {
+                // Sub-pixel steps vanish under the stroke.
+                continue;
+            }
+
+            trailPaths[bucket].lineTo(x, y);
+            lastX = x;
+            lastY = y;
+        }
+    }
+
+    private static Color[] createTrailPalette() {
+        Color[] palette = new Color[TRAIL_SHADES];
+        for (int shade = 0; shade < TRAIL_SHADES; shade++) {
+            float progress = (shade + 0.5f) / TRAIL_SHADES;
+            float alpha = progress * 0.9f;
+
+            int r = (int) (0 + progress * 255);
+            int g = (int) (200 - progress * 100);
+            int b = (int) (255 - progress * 100);
+
+            palette[shade] = new Color(r, g, b, (int) (alpha * 255));
+        }
+        return palette;
+    }
+
+    void drawPendulums(Graphics2D g2d, Speed speed) {
+        int originX = simulation.getXOrigin();
+        int originY = simulation.getYOrigin();
+
+        double x1 = originX + arguments.length1() * Math.sin(speed.getTheta1());
+        double y1 = originY + arguments.length1() * Math.cos(speed.getTheta1());
+        int firstX = (int) x1;
+        int firstY = (int) y1;
+        int secondX = (int) (x1 + arguments.length2() * Math.sin(speed.getTheta2()));
+        int secondY = (int) (y1 + arguments.length2() * Math.cos(speed.getTheta2()));
+
+        g2d.setColor(ARM_SHADOW_COLOR);
+        g2d.setStroke(ARM_SHADOW_STROKE);
+        g2d.drawLine(originX + 3, originY + 3, firstX + 3, firstY + 3);
+        g2d.drawLine(firstX + 3, firstY + 3, secondX + 3, secondY + 3);
+
+        g2d.setColor(ARM_COLOR);
+        g2d.setStroke(ARM_STROKE);
+        g2d.drawLine(originX, originY, firstX, firstY);
+        g2d.drawLine(firstX, firstY, secondX, secondY);
+
+        drawBall(g2d, originX, originY, PIVOT_BALL);
+
+        drawBall(g2d, firstX, firstY, FIRST_BALL);
+
+        drawBall(g2d, secondX, secondY, SECOND_BALL);
+    }
+
+    /**
+     * Draws {@code ball} centered on {@code x, y}. The gradient of a ball is fixed relative to its center, so
+     * the canvas is translated instead of building a new paint for every frame.
+     */
+    private void drawBall(Graphics2D g2d, int x, int y, Ball ball) {
+        int radius = ball.radius();
+        g2d.translate(x, y);
+
+        g2d.setColor(BALL_SHADOW_COLOR);
+        g2d.fillOval(-radius + 3, -radius + 3, radius * 2, radius * 2);
+
+        g2d.setPaint(ball.gradient());
+        g2d.fillOval(-radius, -radius, radius * 2, radius * 2);
+
+        g2d.setColor(BALL_HIGHLIGHT_COLOR);
+        g2d.fillOval(-radius + 3, -radius + 3, radius / 2, radius / 2);
+
+        g2d.setColor(ball.outline());
+        g2d.setStroke(BALL_OUTLINE_STROKE);
+        g2d.drawOval(-radius, -radius, radius * 2, radius * 2);
+
+        g2d.translate(-x, -y);
+    }
+
+    private record Ball(int radius, GradientPaint gradient, Color outline) {
+
+        static Ball of(int radius, Color color) {
+            return new Ball(radius,
+                    new GradientPaint(-radius, -radius, color.brighter(), radius, radius, color.darker()),
+                    color.darker().darker());
+        }
+    }
+
+    static int controlsWidth(boolean seekable) {
+        return seekable ? SEEK_CONTROLS_WIDTH : CONTROLS_WIDTH;
+    }
+
+    /**
+     * Draws the key help, {@link #controlsWidth} wide and {@value #CONTROLS_HEIGHT} high, with the seek keys
+     * when the view is {@code seekable}.
+     */
+    void drawControls(Graphics2D g2d, boolean seekable) {
+        g2d.setColor(CONTROLS_COLOR);
+        g2d.fillRoundRect(0, 0, controlsWidth(seekable), CONTROLS_HEIGHT, 10, 10);
+
+        int y = CONTROLS_HEIGHT - 18;
+
+        g2d.setColor(ACCENT_COLOR);
+        g2d.setFont(KEY_FONT);
+        g2d.drawString("R", 10, y);
+        g2d.drawString("SPACE", 110, y);
+        g2d.drawString("ESC", 300, y);
+        g2d.drawString("+/-", 410, y);
+
+        g2d.setColor(TEXT_COLOR);
+        g2d.setFont(TEXT_FONT);
+        g2d.drawString("Restart", 30, y);
+        g2d.drawString("Pause/Resume", 170, y);
+        g2d.drawString("Close", 335, y);
+        g2d.drawString("Speed", 440, y);
+
+        if (seekable) {
+            g2d.setColor(ACCENT_COLOR);
+            g2d.setFont(KEY_FONT);
+            g2d.drawString("←/→", 500, y);
+
+            g2d.setColor(TEXT_COLOR);
+            g2d.setFont(TEXT_FONT);
+            g2d.drawString("Seek", 540, y);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.andradenathan;
+
+/**
+ * Runs the integration on its own thread with the {@link FixedStepLoop} accumulator: every display frame of
+ * 1/{@value #FRAMES_PER_SECOND} s of wall time advances the state by {@code stepsPerFrame} steps of
+ * {@code timeStep}, multiplied by the time scale, however long painting takes. The trail gets one point
+ * per frame worth of steps at 1x and is decimated to at most {@value #MAX_TRAIL_POINTS_PER_FRAME} points
+ * per display frame when running faster.
+ *
+ * <p>The renderer reads a state interpolated between the last two steps through {@link #interpolate},
+ * and must hold the {@link #getTrajectory() trajectory} monitor while reading the trail.
+ */
+public class PhysicsLoop extends FixedStepLoop implements StateSource {
+    public static final int FRAMES_PER_SECOND = 60;
+    public static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+    public static final double MIN_TIME_SCALE = 1.0;
+    public static final double MAX_TIME_SCALE = 1000.0;
+    public static final int MAX_TRAIL_POINTS_PER_FRAME = 8;
+
+    private static final int BATCH_CHECK_STEPS = 256;
+    private static final double[] TIME_SCALES = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final Trajectory trajectory;
+
+    private final Speed previousSpeed;
+    private SimulationEngine engine;
+
+    private long trailInterval;
+    private long stepsSinceTrailPoint = 0;
+
+    private SimulationMetrics metrics;
+
+    public PhysicsLoop(Arguments arguments, Simulation simulation, Speed initialSpeed) {
+        this(arguments, simulation, initialSpeed, System.nanoTime());
+    }
+
+    PhysicsLoop(Arguments arguments, Simulation simulation, Speed initialSpeed, long startNanos) {
+        super("physics", simulation.getStepsPerFrame(), startNanos);
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.trajectory = new Trajectory(simulation.getTotalFrames());
+        this.previousSpeed = initialSpeed.copy();
+        this.engine = new SimulationEngine(arguments, simulation, initialSpeed);
+        this.trailInterval = getStepsPerFrame();
+    }
+
+    /**
+     * Steps one at a time, adding trail points, and checks every {@code BATCH_CHECK_STEPS} steps whether the
+     * batch has run longer than {@code BATCH_NANOS}, returning early so the renderer is not locked out.
+     */
+    @Override
+    void runDueSteps() {
+        Speed speed = engine.getSpeed();
+
+        StepChunkEvent event = new StepChunkEvent();
+        event.begin();
+        long batchStart = System.nanoTime();
+        int batch = 0;
+        int evicted = 0;
+        while (dueSteps() > 0) {
+            previousSpeed.update(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2());
+            engine.step();
+            stepped(1);
+
+            if (++stepsSinceTrailPoint >= trailInterval) {
+                stepsSinceTrailPoint = 0;
+                if (addTrailPoint(speed)) {
+                    evicted++;
+                }
+            }
+
+            if (++batch % BATCH_CHECK_STEPS == 0 && System.nanoTime() - batchStart > BATCH_NANOS) {
+                break;
+            }
+        }
+
+        FlightRecorder recorder = engine.getRecorder();
+        if (recorder != null) {
+            recorder.publish();
+        }
+        if (batch > 0) {
+            engine.commit(event, batch);
+            commitEviction(evicted, false);
+        }
+        if (metrics != null && batch > 0) {
+            metrics.recordSteps(batch);
+            metrics.recordEnergy(engine.getLagrange().calculateEnergy(speed));
+        }
+    }
+
+    /**
+     * Fills {@code target} with the state {@code nowNanos} falls on, between the last two steps.
+     */
+    @Override
+    public synchronized void interpolate(Speed target, long nowNanos) {
+        Speed speed = engine.getSpeed();
+        double alpha = stepFraction(nowNanos);
+
+        target.update(
+                previousSpeed.getTheta1() + (speed.getTheta1() - previousSpeed.getTheta1()) * alpha,
+                previousSpeed.getTheta2() + (speed.getTheta2() - previousSpeed.getTheta2()) * alpha,
+                previousSpeed.getOmega1() + (speed.getOmega1() - previousSpeed.getOmega1()) * alpha,
+                previousSpeed.getOmega2() + (speed.getOmega2() - previousSpeed.getOmega2()) * alpha);
+    }
+
+    @Override
+    public synchronized void reset(Speed initialSpeed) {
+        engine = new SimulationEngine(arguments, simulation, initialSpeed);
+        previousSpeed.update(initialSpeed.getTheta1(), initialSpeed.getTheta2(),
+                initialSpeed.getOmega1(), initialSpeed.getOmega2());
+        clearBacklog();
+        stepsSinceTrailPoint = 0;
+        if (metrics != null) {
+            metrics.resetEnergy(engine.getLagrange().calculateEnergy(initialSpeed));
+        }
+
+        int evicted;
+        synchronized (trajectory) {
+            evicted = trajectory.size();
+            trajectory.clear();
+        }
+        commitEviction(evicted, true);
+    }
+
+    /**
+     * Records every step from now on, or stops recording when {@code recorder} is null. A reset starts a
+     * new run that is not recorded, so a recording always holds one continuous run.
+     */
+    public synchronized void setRecorder(FlightRecorder recorder) {
+        engine.setRecorder(recorder);
+    }
+
+    /**
+     * Publishes steps and energy to {@code metrics} from now on, or stops when it is null.
+     */
+    public synchronized void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.resetEnergy(engine.getLagrange().calculateEnergy(engine.getSpeed()));
+        }
+    }
+
+    @Override
+    public synchronized void setTimeScale(double timeScale) {
+        super.setTimeScale(timeScale);
+        this.trailInterval = getStepsPerFrame() * (long) Math.ceil(getTimeScale() / MAX_TRAIL_POINTS_PER_FRAME);
+    }
+
+    @Override
+    public synchronized long getSteps() {
+        return engine.getSteps();
+    }
+
+    @Override
+    public synchronized double getSimulationTime() {
+        return engine.getSimulationTime();
+    }
+
+    @Override
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    /**
+     * The time scale the <b>+</b> key steps to from {@code current}, or {@code current} at the top.
+     */
+    static double nextTimeScale(double current) {
+        for (double timeScale : TIME_SCALES) {
+            if (timeScale > current) {
+                return timeScale;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The time scale the <b>-</b> key steps to from {@code current}, or {@code current} at the bottom.
+     */
+    static double previousTimeScale(double current) {
+        for (int index = TIME_SCALES.length - 1; index >= 0; index--) {
+            if (TIME_SCALES[index] < current) {
+                return TIME_SCALES[index];
+            }
+        }
+        return current;
+    }
+
+    private static void commitEviction(int evicted, boolean reset) {
+        if (evicted == 0) {
+            return;
+        }
+        TrajectoryEvictionEvent event = new TrajectoryEvictionEvent();
+        if (event.shouldCommit()) {
+            event.evicted = evicted;
+            event.reset = reset;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds a trail point for {@code speed} and returns whether it evicted the oldest one.
+     */
+    private boolean addTrailPoint(Speed speed) {
+        double x = simulation.getXOrigin()
+                + arguments.length1() * Math.sin(speed.getTheta1()) + arguments.length2() * Math.sin(speed.getTheta2());
+        double y = simulation.getYOrigin()
+                + arguments.length1() * Math.cos(speed.getTheta1()) + arguments.length2() * Math.cos(speed.getTheta2());
+
+        synchronized (trajectory) {
+            return trajectory.addPoint(x, y);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of flight recordings, little-endian throughout.
+ *
+ * <pre>
+ * offset  size  header field
+ *      0     4  magic "DPFR"
+ *      4     4  version
+ *      8     4  header size in bytes
+ *     12     4  record size in bytes
+ *     16     8  record count
+ *     24    40  gravity, mass1, length1, mass2, length2 (doubles)
+ *     64     8  time step
+ *     72    16  steps per frame, total frames, x origin, y origin (ints)
+ *     88    16  absolute and relative tolerance (doubles)
+ *    104     1  integrator name length, followed by up to 32 ASCII bytes
+ * </pre>
+ *
+ * Records follow the header back to back as six doubles: time, θ1, θ2, ω1, ω2 and energy. The file may be
+ * longer than the records it holds, so readers must rely on the record count.
+ *
+ * <p>The run parameters, from offset 24 up to {@link #PARAMETERS_END}, are shared with the compressed
+ * {@link StateStreamWriter} header.
+ */
+public final class RecordingFormat {
+    public static final int MAGIC = 0x52465044;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 256;
+    public static final int RECORD_BYTES = 48;
+
+    public static final int TIME = 0;
+    public static final int THETA1 = 8;
+    public static final int THETA2 = 16;
+    public static final int OMEGA1 = 24;
+    public static final int OMEGA2 = 32;
+    public static final int ENERGY = 40;
+
+    private static final int RECORD_COUNT = 16;
+    private static final int ARGUMENTS = 24;
+    private static final int TIME_STEP = 64;
+    private static final int LAYOUT = 72;
+    private static final int TOLERANCE = 88;
+    private static final int INTEGRATOR = 104;
+    private static final int MAX_NAME_BYTES = 32;
+
+    public static final int PARAMETERS_END = INTEGRATOR + 1 + MAX_NAME_BYTES;
+
+    private RecordingFormat() {
+    }
+
+    public static void writeHeader(ByteBuffer header, Arguments arguments, Simulation simulation) {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, HEADER_BYTES);
+        header.putInt(12, RECORD_BYTES);
+        header.putLong(RECORD_COUNT, 0);
+        writeParameters(header, arguments, simulation);
+    }
+
+    public static void writeParameters(ByteBuffer header, Arguments arguments, Simulation simulation) {
+        header.putDouble(ARGUMENTS, arguments.gravity());
+        header.putDouble(ARGUMENTS + 8, arguments.mass1());
+        header.putDouble(ARGUMENTS + 16, arguments.length1());
+        header.putDouble(ARGUMENTS + 24, arguments.mass2());
+        header.putDouble(ARGUMENTS + 32, arguments.length2());
+
+        header.putDouble(TIME_STEP, simulation.getTimeStep());
+        header.putInt(LAYOUT, simulation.getStepsPerFrame());
+        header.putInt(LAYOUT + 4, simulation.getTotalFrames());
+        header.putInt(LAYOUT + 8, simulation.getXOrigin());
+        header.putInt(LAYOUT + 12, simulation.getYOrigin());
+        header.putDouble(TOLERANCE, simulation.getTolerance().absolute());
+        header.putDouble(TOLERANCE + 8, simulation.getTolerance().relative());
+
+        byte[] name = simulation.getIntegrator().getName().getBytes(StandardCharsets.US_ASCII);
+        header.put(INTEGRATOR, (byte) name.length);
+        header.put(INTEGRATOR + 1, name, 0, Math.min(name.length, MAX_NAME_BYTES));
+    }
+
+    public static void writeRecordCount(ByteBuffer header, long records) {
+        header.putLong(RECORD_COUNT, records);
+    }
+
+    public static void validate(ByteBuffer header) throws IOException {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a flight recording");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported recording version: " + header.getInt(4));
+        }
+        if (header.getInt(8) != HEADER_BYTES || header.getInt(12) != RECORD_BYTES) {
+            throw new IOException("Unexpected recording layout");
+        }
+    }
+
+    public static long readRecordCount(ByteBuffer header) {
+        return header.getLong(RECORD_COUNT);
+    }
+
+    public static Arguments readArguments(ByteBuffer header) {
+        return new Arguments(
+                header.getDouble(ARGUMENTS),
+                header.getDouble(ARGUMENTS + 8),
+                header.getDouble(ARGUMENTS + 16),
+                header.getDouble(ARGUMENTS + 24),
+                header.getDouble(ARGUMENTS + 32));
+    }
+
+    /**
+     * Reads the run parameters, rejecting values no writer produces, so that a corrupt or foreign header fails
+     * as an {@link IOException} instead of an unchecked exception in the replay.
+     */
+    public static Simulation readSimulation(ByteBuffer header) throws IOException {
+        int nameLength = Byte.toUnsignedInt(header.get(INTEGRATOR));
+        if (nameLength < 1 || nameLength > MAX_NAME_BYTES) {
+            throw corruptHeader("integrator name length " + nameLength);
+        }
+        byte[] name = new byte[nameLength];
+        header.get(INTEGRATOR + 1, name);
+
+        double timeStep = header.getDouble(TIME_STEP);
+        if (!(timeStep > 0) || Double.isInfinite(timeStep)) {
+            throw corruptHeader("time step " + timeStep);
+        }
+        int stepsPerFrame = header.getInt(LAYOUT);
+        int totalFrames = header.getInt(LAYOUT + 4);
+        if (stepsPerFrame < 1 || totalFrames < 1) {
+            throw corruptHeader(stepsPerFrame + " steps per frame, " + totalFrames + " frames");
+        }
+
+        IntegratorType integrator;
+        Tolerance tolerance;
+        try {
+            integrator = IntegratorType.fromName(new String(name, StandardCharsets.US_ASCII));
+            tolerance = new Tolerance(header.getDouble(TOLERANCE), header.getDouble(TOLERANCE + 8));
+        } catch (IllegalArgumentException e) {
+            throw corruptHeader(e.getMessage());
+        }
+
+        return new Simulation(timeStep, stepsPerFrame, totalFrames, header.getInt(LAYOUT + 8),
+                header.getInt(LAYOUT + 12), integrator, tolerance);
+    }
+
+    private static IOException corruptHeader(String detail) {
+        return new IOException("Corrupt recording header: " + detail);
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.andradenathan;
+
+/**
+ * Plays a {@link FlightRecording} back at the pace {@link PhysicsLoop} would have simulated it: one display
+ * frame of wall time covers {@code stepsPerFrame × timeStep} seconds of the recording, times the time scale.
+ * The position follows the wall clock whenever the renderer asks for a state, so no thread is needed, and
+ * states between two records are interpolated linearly.
+ *
+ * <p>The trail is rebuilt from the recording after a jump backwards or a jump longer than the trail.
+ * Playback pauses at the end of the recording and resuming from there starts over.
+ */
+public class RecordingPlayer implements StateSource {
+    private final FlightRecording recording;
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final Trajectory trajectory;
+    private final int stepsPerFrame;
+    private final double frameTime;
+    private final Speed next = new Speed(0, 0, 0, 0);
+
+    private double position;
+    private long lastNanos;
+    private boolean paused = false;
+
+    private double timeScale = PhysicsLoop.MIN_TIME_SCALE;
+    private long trailInterval;
+    private long trailRecord = -1;
+
+    public RecordingPlayer(FlightRecording recording) {
+        this(recording, System.nanoTime());
+    }
+
+    RecordingPlayer(FlightRecording recording, long startNanos) {
+        this.recording = recording;
+        this.arguments = recording.getArguments();
+        this.simulation = recording.getSimulation();
+        this.trajectory = new Trajectory(simulation.getTotalFrames());
+        this.stepsPerFrame = simulation.getStepsPerFrame();
+        this.frameTime = stepsPerFrame * simulation.getTimeStep();
+        this.position = recording.getStartTime();
+        this.lastNanos = startNanos;
+        this.trailInterval = stepsPerFrame;
+    }
+
+    @Override
+    public synchronized void start() {
+        lastNanos = System.nanoTime();
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public synchronized void interpolate(Speed target, long nowNanos) {
+        advance(nowNanos);
+
+        long record = recording.floorRecord(position);
+        recording.read(record, target);
+        updateTrail(record);
+
+        if (record + 1 >= recording.size()) {
+            return;
+        }
+        double time = recording.getTime(record);
+        double nextTime = recording.getTime(record + 1);
+        if (nextTime <= time) {
+            return;
+        }
+
+        double alpha = Math.min(1.0, (position - time) / (nextTime - time));
+        recording.read(record + 1, next);
+        target.update(
+                target.getTheta1() + (next.getTheta1() - target.getTheta1()) * alpha,
+                target.getTheta2() + (next.getTheta2() - target.getTheta2()) * alpha,
+                target.getOmega1() + (next.getOmega1() - target.getOmega1()) * alpha,
+                target.getOmega2() + (next.getOmega2() - target.getOmega2()) * alpha);
+    }
+
+    /**
+     * Rewinds to the start of the recording; the recording decides the initial state.
+     */
+    @Override
+    public synchronized void reset(Speed initialSpeed) {
+        position = recording.getStartTime();
+        trailRecord = -1;
+    }
+
+    @Override
+    public synchronized void skip(long frames) {
+        position = Math.max(recording.getStartTime(),
+                Math.min(recording.getEndTime(), position + frames * frameTime * timeScale));
+    }
+
+    @Override
+    public synchronized void setPaused(boolean paused) {
+        if (!paused && position >= recording.getEndTime()) {
+            position = recording.getStartTime();
+        }
+        this.paused = paused;
+    }
+
+    @Override
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public synchronized void setTimeScale(double timeScale) {
+        this.timeScale = Math.max(PhysicsLoop.MIN_TIME_SCALE, Math.min(PhysicsLoop.MAX_TIME_SCALE, timeScale));
+        this.trailInterval = stepsPerFrame
+                * (long) Math.ceil(this.timeScale / PhysicsLoop.MAX_TRAIL_POINTS_PER_FRAME);
+        this.trailRecord = -1;
+    }
+
+    @Override
+    public synchronized double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Reading the recording never falls behind, so the requested time scale is always achieved.
+     */
+    @Override
+    public synchronized double getAchievedTimeScale() {
+        return timeScale;
+    }
+
+    @Override
+    public synchronized long getSteps() {
+        return recording.floorRecord(position);
+    }
+
+    @Override
+    public synchronized double getSimulationTime() {
+        return position;
+    }
+
+    @Override
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    public FlightRecording getRecording() {
+        return recording;
+    }
+
+    private void advance(long nowNanos) {
+        long elapsed = nowNanos - lastNanos;
+        lastNanos = nowNanos;
+        if (paused) {
+            return;
+        }
+
+        position += elapsed * frameTime * timeScale / PhysicsLoop.FRAME_NANOS;
+        if (position >= recording.getEndTime()) {
+            position = recording.getEndTime();
+            paused = true;
+        }
+    }
+
+    private void updateTrail(long record) {
+        long target = record - record % trailInterval;
+        if (target == trailRecord) {
+            return;
+        }
+
+        synchronized (trajectory) {
+            long first = trailRecord + trailInterval;
+            if (trailRecord < 0 || target < trailRecord
+                    || (target - trailRecord) / trailInterval >= trajectory.getMaxPoints()) {
+                trajectory.clear();
+                first = target - Math.min(target / trailInterval, trajectory.getMaxPoints() - 1) * trailInterval;
+            }
+
+            for (long point = first; point <= target; point += trailInterval) {
+                recording.read(point, next);
+                addTrailPoint(next);
+            }
+        }
+        trailRecord = target;
+    }
+
+    private void addTrailPoint(Speed speed) {
+        double x = simulation.getXOrigin()
+                + arguments.length1() * Math.sin(speed.getTheta1()) + arguments.length2() * Math.sin(speed.getTheta2());
+        double y = simulation.getYOrigin()
+                + arguments.length1() * Math.cos(speed.getTheta1()) + arguments.length2() * Math.cos(speed.getTheta2());
+
+        trajectory.addPoint(x, y);
+    }
+}
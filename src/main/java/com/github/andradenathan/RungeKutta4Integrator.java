@@ -0,0 +1,45 @@
+package com.github.andradenathan;
+
+public class RungeKutta4Integrator extends StateIntegrator {
+    private final double[] state = new double[DIMENSION];
+    private final double[] stage = new double[DIMENSION];
+    private final double[] k1 = new double[DIMENSION];
+    private final double[] k2 = new double[DIMENSION];
+    private final double[] k3 = new double[DIMENSION];
+    private final double[] k4 = new double[DIMENSION];
+
+    @Override
+    double[] state() {
+        return state;
+    }
+
+    @Override
+    void step(Lagrange lagrange, double[] y, double timeStep) {
+        double halfStep = timeStep / 2;
+
+        derivative(lagrange, y, k1);
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + halfStep * k1[i];
+        }
+
+        derivative(lagrange, stage, k2);
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + halfStep * k2[i];
+        }
+
+        derivative(lagrange, stage, k3);
+        for (int i = 0; i < DIMENSION; i++) {
+            stage[i] = y[i] + timeStep * k3[i];
+        }
+
+        derivative(lagrange, stage, k4);
+        for (int i = 0; i < DIMENSION; i++) {
+            y[i] += timeStep / 6 * (k1[i] + 2 * k2[i] + 2 * k3[i] + k4[i]);
+        }
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.RK4;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.andradenathan;
+
+public class ScalarEnsembleKernel implements EnsembleKernel {
+    private final LagrangeKernel kernel;
+
+    public ScalarEnsembleKernel(Arguments arguments) {
+        this(arguments, TrigMode.MATH);
+    }
+
+    public ScalarEnsembleKernel(Arguments arguments, TrigMode trigMode) {
+        this.kernel = new LagrangeKernel(arguments, trigMode);
+    }
+
+    @Override
+    public void advance(double[] theta1, double[] theta2, double[] omega1, double[] omega2,
+                        int from, int to, int steps, double timeStep) {
+        double[] accelerations = new double[2];
+
+        for (int index = from; index < to; index++) {
+            double t1 = theta1[index];
+            double t2 = theta2[index];
+            double w1 = omega1[index];
+            double w2 = omega2[index];
+
+            for (int step = 0; step < steps; step++) {
+                kernel.accelerations(t1, t2, w1, w2, accelerations);
+
+                w1 += accelerations[0] * timeStep;
+                w2 += accelerations[1] * timeStep;
+                t1 += w1 * timeStep;
+                t2 += w2 * timeStep;
+            }
+
+            theta1[index] = t1;
+            theta2[index] = t2;
+            omega1[index] = w1;
+            omega2[index] = w2;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -6,13 +6,34 @@ public class Simulation {
     private final int totalFrames;
     private final int xOrigin;
     private final int yOrigin;
+    private final IntegratorType integrator;
+    private final Tolerance tolerance;
+    private final TrigMode trigMode;
 
     public Simulation(double timeStep, int stepsPerFrame, int totalFrames, int xOrigin, int yOrigin) {
+        this(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, IntegratorType.EULER);
+    }
+
+    public Simulation(double timeStep, int stepsPerFrame, int totalFrames, int xOrigin, int yOrigin,
+                      IntegratorType integrator) {
+        this(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator, Tolerance.usingDefault());
+    }
+
+    public Simulation(double timeStep, int stepsPerFrame, int totalFrames, int xOrigin, int yOrigin,
+                      IntegratorType integrator, Tolerance tolerance) {
+        this(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator, tolerance, TrigMode.MATH);
+    }
+
+    public Simulation(double timeStep, int stepsPerFrame, int totalFrames, int xOrigin, int yOrigin,
+                      IntegratorType integrator, Tolerance tolerance, TrigMode trigMode) {
         this.timeStep = timeStep;
         this.stepsPerFrame = stepsPerFrame;
         this.totalFrames = totalFrames;
         this.xOrigin = xOrigin;
         this.yOrigin = yOrigin;
+        this.integrator = integrator;
+        this.tolerance = tolerance;
+        this.trigMode = trigMode;
     }
 
     public static Simulation usingDefault() {
@@ -27,6 +48,30 @@ public class Simulation {
         return new Simulation(0.1, 1, 1000, 400, 350);
     }
 
+    public Simulation withIntegrator(IntegratorType integrator) {
+        return new Simulation(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator, tolerance, trigMode);
+    }
+
+    public Simulation withTimeStep(double timeStep) {
+        return new Simulation(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator, tolerance, trigMode);
+    }
+
+    public Simulation withTolerance(Tolerance tolerance) {
+        return new Simulation(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator, tolerance, trigMode);
+    }
+
+    /**
+     * Evaluates sine and cosine in the equations of motion with {@code trigMode}. The symplectic integrators
+     * work on the {@link Hamiltonian} and always use {@link Math}.
+     */
+    public Simulation withTrigMode(TrigMode trigMode) {
+        return new Simulation(timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator, tolerance, trigMode);
+    }
+
+    public Integrator createIntegrator() {
+        return integrator.create(tolerance);
+    }
+
     public double getTimeStep() {
         return timeStep;
     }
@@ -47,9 +92,22 @@ public class Simulation {
         return yOrigin;
     }
 
+    public IntegratorType getIntegrator() {
+        return integrator;
+    }
+
+    public Tolerance getTolerance() {
+        return tolerance;
+    }
+
+    public TrigMode getTrigMode() {
+        return trigMode;
+    }
+
     @Override
     public String toString() {
-        return String.format("dt=%.3f, intervalo=%dms, maxPontos=%d, origem=(%d,%d)",
-                timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin);
+        return String.format("dt=%.3f, passosPorQuadro=%d, maxPontos=%d, origem=(%d,%d), integrador=%s%s",
+                timeStep, stepsPerFrame, totalFrames, xOrigin, yOrigin, integrator.getName(),
+                trigMode == TrigMode.MATH ? "" : ", trig=" + trigMode.getName());
     }
 }
@@ -0,0 +1,128 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public class SimulationEngine {
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final Lagrange lagrange;
+    private final Integrator integrator;
+    private final Speed speed;
+
+    private FlightRecorder recorder;
+    private long steps = 0;
+
+    public SimulationEngine(Arguments arguments, Simulation simulation, Speed initialSpeed) {
+        this.arguments = arguments;
+        this.simulation = simulation;
+        this.lagrange = new Lagrange(arguments, simulation.getTrigMode());
+        this.integrator = simulation.createIntegrator();
+        this.speed = initialSpeed.copy();
+    }
+
+    public void step() {
+        integrator.step(lagrange, speed, simulation.getTimeStep());
+        steps++;
+
+        if (recorder != null) {
+            record();
+        }
+    }
+
+    public void step(long count) {
+        double timeStep = simulation.getTimeStep();
+        StepChunkEvent event = new StepChunkEvent();
+        event.begin();
+
+        if (recorder != null) {
+            for (long step = 0; step < count; step++) {
+                integrator.step(lagrange, speed, timeStep);
+                steps++;
+                record();
+            }
+        } else {
+            for (long step = 0; step < count; step++) {
+                integrator.step(lagrange, speed, timeStep);
+            }
+            steps += count;
+        }
+
+        commit(event, count);
+    }
+
+    /**
+     * Commits a step chunk event for {@code count} steps that ended at the current state.
+     */
+    void commit(StepChunkEvent event, long count) {
+        if (event.shouldCommit()) {
+            event.integrator = simulation.getIntegrator().getName();
+            event.steps = count;
+            event.timeStep = simulation.getTimeStep();
+            event.simulationTime = getSimulationTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the current state and every state after each following step, or stops recording when
+     * {@code recorder} is null. The caller keeps ownership of the recorder and closes it.
+     */
+    public void setRecorder(FlightRecorder recorder) {
+        this.recorder = recorder;
+
+        if (recorder != null) {
+            record();
+        }
+    }
+
+    public FlightRecorder getRecorder() {
+        return recorder;
+    }
+
+    public SimulationReport run(long count) {
+        long evaluations = lagrange.getEvaluations();
+        long start = System.nanoTime();
+        step(count);
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new SimulationReport(count, elapsedNanos, getSimulationTime(),
+                lagrange.getEvaluations() - evaluations, speed.copy(), lagrange.calculateEnergy(speed));
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    public Lagrange getLagrange() {
+        return lagrange;
+    }
+
+    public Integrator getIntegrator() {
+        return integrator;
+    }
+
+    public Speed getSpeed() {
+        return speed;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public double getSimulationTime() {
+        return steps * simulation.getTimeStep();
+    }
+
+    private void record() {
+        try {
+            recorder.record(getSimulationTime(), speed, lagrange.calculateEnergy(speed));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.github.andradenathan;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime metrics of a running simulation, published over JMX as
+ * {@value #OBJECT_NAME}. Recording is lock-free: the physics thread adds steps and stores the energy once per
+ * batch, and the event dispatch thread adds one paint time and one timer lag per frame. Paint times go into a
+ * log-linear histogram of {@value #SUB_BUCKETS} buckets per power of two, so percentiles are within 1/8
+ * of the true value. Rates are computed when they are read, over the time since the previous read.
+ *
+ * <p>The energy drift is (E - E0) / ((m1 + m2) g L1 + m2 g L2), relative to the energy scale rather than to
+ * E0, which is zero for the default start.
+ */
+public class SimulationMetrics implements SimulationMetricsMBean {
+    public static final String OBJECT_NAME = "com.github.andradenathan:type=SimulationMetrics";
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MIN_RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private final double energyScale;
+    private final Trajectory trajectory;
+
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final AtomicLongArray paintBuckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong paintMaxNanos = new AtomicLong();
+    private final AtomicLong edtLagMaxNanos = new AtomicLong();
+    private volatile long edtLagNanos;
+    private volatile double initialEnergy;
+    private volatile double energy;
+
+    private long rateStartNanos;
+    private long rateStartSteps;
+    private long rateStartAllocated;
+    private double stepsPerSecond;
+    private double allocationRate;
+
+    public SimulationMetrics(Arguments arguments, Trajectory trajectory) {
+        this.energyScale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1()
+                + arguments.mass2() * arguments.gravity() * arguments.length2();
+        this.trajectory = trajectory;
+        this.rateStartNanos = System.nanoTime();
+        this.rateStartAllocated = allocatedBytes();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, replacing any metrics registered before.
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        }
+    }
+
+    public void recordSteps(long count) {
+        steps.add(count);
+    }
+
+    /**
+     * Sets E0 for the energy drift, when a run starts or restarts.
+     */
+    public void resetEnergy(double initialEnergy) {
+        this.initialEnergy = initialEnergy;
+        this.energy = initialEnergy;
+    }
+
+    public void recordEnergy(double energy) {
+        this.energy = energy;
+    }
+
+    public void recordPaint(long nanos) {
+        frames.increment();
+        paintBuckets.incrementAndGet(bucket(nanos));
+        paintMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Records how late the frame timer fired on the event dispatch thread.
+     */
+    public void recordEdtLag(long nanos) {
+        edtLagNanos = nanos;
+        edtLagMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public long getSteps() {
+        return steps.sum();
+    }
+
+    @Override
+    public synchronized double getStepsPerSecond() {
+        updateRates();
+        return stepsPerSecond;
+    }
+
+    @Override
+    public long getFrames() {
+        return frames.sum();
+    }
+
+    @Override
+    public double getPaintTimeP50Millis() {
+        return paintPercentile(0.50) / 1e6;
+    }
+
+    @Override
+    public double getPaintTimeP95Millis() {
+        return paintPercentile(0.95) / 1e6;
+    }
+
+    @Override
+    public double getPaintTimeP99Millis() {
+        return paintPercentile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getPaintTimeMaxMillis() {
+        return paintMaxNanos.get() / 1e6;
+    }
+
+    @Override
+    public double getEdtLagMillis() {
+        return edtLagNanos / 1e6;
+    }
+
+    @Override
+    public double getEdtLagMaxMillis() {
+        return edtLagMaxNanos.get() / 1e6;
+    }
+
+    @Override
+    public int getTrajectorySize() {
+        synchronized (trajectory) {
+            return trajectory.size();
+        }
+    }
+
+    /**
+     * Bytes allocated per second by all live threads, or NaN when the JVM does not measure allocation.
+     */
+    @Override
+    public synchronized double getAllocationRateMegabytesPerSecond() {
+        updateRates();
+        return allocationRate / 1e6;
+    }
+
+    @Override
+    public double getEnergyDrift() {
+        return (energy - initialEnergy) / energyScale;
+    }
+
+    /**
+     * Clears the paint time histogram and the maximum lags, which otherwise cover the whole run.
+     */
+    @Override
+    public void resetStatistics() {
+        for (int i = 0; i < BUCKETS; i++) {
+            paintBuckets.set(i, 0);
+        }
+        paintMaxNanos.set(0);
+        edtLagMaxNanos.set(0);
+    }
+
+    /**
+     * Upper bound in nanoseconds of the bucket holding the given quantile of paint times.
+     */
+    double paintPercentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = paintBuckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBound(i), paintMaxNanos.get());
+            }
+        }
+        return paintMaxNanos.get();
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private void updateRates() {
+        long now = System.nanoTime();
+        long window = now - rateStartNanos;
+        if (window < MIN_RATE_WINDOW_NANOS) {
+            return;
+        }
+
+        long currentSteps = steps.sum();
+        long allocated = allocatedBytes();
+        stepsPerSecond = (currentSteps - rateStartSteps) * 1e9 / window;
+        // Bytes of threads that died during the window are lost from the sum, hence the clamp.
+        allocationRate = allocated < 0 ? Double.NaN : Math.max(0, allocated - rateStartAllocated) * 1e9 / window;
+        rateStartNanos = now;
+        rateStartSteps = currentSteps;
+        rateStartAllocated = allocated;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean allocation)
+                || !allocation.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+
+        long total = 0;
+        for (long bytes : allocation.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.andradenathan;
+
+/**
+ * Management interface of {@link SimulationMetrics}. Times are in milliseconds.
+ */
+public interface SimulationMetricsMBean {
+    long getSteps();
+
+    double getStepsPerSecond();
+
+    long getFrames();
+
+    double getPaintTimeP50Millis();
+
+    double getPaintTimeP95Millis();
+
+    double getPaintTimeP99Millis();
+
+    double getPaintTimeMaxMillis();
+
+    double getEdtLagMillis();
+
+    double getEdtLagMaxMillis();
+
+    int getTrajectorySize();
+
+    double getAllocationRateMegabytesPerSecond();
+
+    double getEnergyDrift();
+
+    void resetStatistics();
+}
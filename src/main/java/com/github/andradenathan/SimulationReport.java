@@ -0,0 +1,21 @@
+package com.github.andradenathan;
+
+public record SimulationReport(
+        long steps, long elapsedNanos, double simulationTime, long evaluations, Speed finalSpeed, double energy) {
+
+    public double stepsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0.0;
+        }
+        return steps / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("steps=%d, elapsed=%.3fs, steps/s=%.0f, t=%.3fs, evaluations=%d%n"
+                        + "theta1=%.6f rad, theta2=%.6f rad, omega1=%.6f rad/s, omega2=%.6f rad/s, energy=%.6f J",
+                steps, elapsedNanos / 1e9, stepsPerSecond(), simulationTime, evaluations,
+                finalSpeed.getTheta1(), finalSpeed.getTheta2(),
+                finalSpeed.getOmega1(), finalSpeed.getOmega2(), energy);
+    }
+}
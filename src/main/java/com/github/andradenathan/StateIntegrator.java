@@ -0,0 +1,38 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.Lagrange.OMEGA1;
+import static com.github.andradenathan.Lagrange.OMEGA2;
+import static com.github.andradenathan.Lagrange.THETA1;
+import static com.github.andradenathan.Lagrange.THETA2;
+
+abstract class StateIntegrator implements Integrator {
+    static final int DIMENSION = 4;
+
+    private final double[] accelerations = new double[2];
+
+    @Override
+    public void step(Lagrange lagrange, Speed speed, double timeStep) {
+        double[] state = state();
+        state[THETA1] = speed.getTheta1();
+        state[THETA2] = speed.getTheta2();
+        state[OMEGA1] = speed.getOmega1();
+        state[OMEGA2] = speed.getOmega2();
+
+        step(lagrange, state, timeStep);
+
+        speed.update(state[THETA1], state[THETA2], state[OMEGA1], state[OMEGA2]);
+    }
+
+    abstract double[] state();
+
+    abstract void step(Lagrange lagrange, double[] state, double timeStep);
+
+    void derivative(Lagrange lagrange, double[] state, double[] derivative) {
+        lagrange.calculateAccelerations(state[THETA1], state[THETA2], state[OMEGA1], state[OMEGA2], accelerations);
+
+        derivative[THETA1] = state[OMEGA1];
+        derivative[THETA2] = state[OMEGA2];
+        derivative[OMEGA1] = accelerations[0];
+        derivative[OMEGA2] = accelerations[1];
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.andradenathan;
+
+/**
+ * Supplies the pendulum state to {@link DoublePendulum}, either integrated live by {@link PhysicsLoop} or
+ * played back from a file by {@link RecordingPlayer}. Readers of the {@link #getTrajectory() trajectory}
+ * must hold its monitor.
+ */
+public interface StateSource {
+
+    void start();
+
+    void stop();
+
+    /**
+     * Fills {@code target} with the state to draw at {@code nowNanos}.
+     */
+    void interpolate(Speed target, long nowNanos);
+
+    void reset(Speed initialSpeed);
+
+    /**
+     * Jumps by {@code frames} display frames at the current time scale, backwards when negative. Sources
+     * that cannot seek ignore it.
+     */
+    default void skip(long frames) {
+    }
+
+    void setPaused(boolean paused);
+
+    boolean isPaused();
+
+    void setTimeScale(double timeScale);
+
+    double getTimeScale();
+
+    double getAchievedTimeScale();
+
+    long getSteps();
+
+    double getSimulationTime();
+
+    Trajectory getTrajectory();
+}
@@ -0,0 +1,218 @@
+package com.github.andradenathan;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Encoding of one block of states. Steps are stored Gorilla-style as delta-of-delta, which costs one bit per
+ * record while the step advances by a constant. Each of θ1, θ2, ω1 and ω2 is XORed with its cubic
+ * extrapolation from the last four values instead of the previous value: a chaotic state changes most
+ * mantissa bits between steps, but its prediction error along a smooth curve is small, so the XOR has many
+ * leading zeros. As in FPC (Burtscher and Ratanaworabhan), the XOR is then stored as a 4-bit count of its
+ * leading zero bytes and its remaining low bytes. Rounding to whole bytes costs about 3% of compression
+ * against a bit-granular Gorilla window, but coding a value takes no branches and no bit shuffling, which
+ * keeps encoding ahead of the integrator. Everything is bitwise lossless.
+ *
+ * <pre>
+ * size                 block field
+ *    4                 length n of the step stream in bytes, little-endian
+ *    n                 step stream
+ *    2 * count         zero byte counts, two per byte, low nibble first, θ1 of every record then θ2, ω1, ω2
+ *    rest              remaining bytes of each XOR, least significant first, in the same order
+ * </pre>
+ *
+ * Every block starts from an empty history, so any block can be decoded on its own. Not thread-safe.
+ */
+final class StateStreamCodec {
+    static final int COMPONENTS = 4;
+
+    private static final int HISTORY = 4;
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final BitWriter stepOutput;
+    private byte[] bytes;
+
+    StateStreamCodec(int blockRecords) {
+        this.stepOutput = new BitWriter(blockRecords / 4);
+        this.bytes = new byte[Integer.BYTES + blockRecords * (2 + COMPONENTS * Long.BYTES) + Long.BYTES];
+    }
+
+    /**
+     * Encodes the first {@code count} entries of {@code steps} and of every {@code values[component]} into
+     * {@link #bytes()} and returns the length of the block.
+     */
+    int encode(long[] steps, double[][] values, int count) {
+        stepOutput.reset();
+        encodeSteps(stepOutput, steps, count);
+        int stepBytes = stepOutput.finish();
+
+        int zeroCounts = Integer.BYTES + stepBytes;
+        int position = zeroCounts + 2 * count;
+        int capacity = position + count * COMPONENTS * Long.BYTES + Long.BYTES;
+        if (bytes.length < capacity) {
+            bytes = new byte[capacity];
+        }
+        INTS.set(bytes, 0, stepBytes);
+        System.arraycopy(stepOutput.bytes(), 0, bytes, Integer.BYTES, stepBytes);
+        Arrays.fill(bytes, zeroCounts, position, (byte) 0);
+
+        for (int component = 0; component < COMPONENTS; component++) {
+            position = encodeValues(values[component], count, component * count, zeroCounts, position);
+        }
+        return position;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Decodes a block of {@code count} records into {@code steps} and {@code values[component]}. The array
+     * must hold {@value BitReader#PADDING} readable bytes past the block.
+     */
+    static void decode(byte[] block, BitReader input, long[] steps, double[][] values, int count) {
+        int stepBytes = (int) INTS.get(block, 0);
+        input.reset(block, Integer.BYTES);
+        decodeSteps(input, steps, count);
+
+        int zeroCounts = Integer.BYTES + stepBytes;
+        int position = zeroCounts + 2 * count;
+        for (int component = 0; component < COMPONENTS; component++) {
+            position = decodeValues(block, values[component], count, component * count, zeroCounts, position);
+        }
+    }
+
+    private static void encodeSteps(BitWriter output, long[] steps, int count) {
+        if (count == 0) {
+            return;
+        }
+        output.write(steps[0], Long.SIZE);
+
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = steps[i] - steps[i - 1];
+            long deltaOfDelta = delta - previousDelta;
+            previousDelta = delta;
+
+            if (deltaOfDelta == 0) {
+                output.write(0b0, 1);
+            } else if (deltaOfDelta >= -64 && deltaOfDelta < 64) {
+                output.write(0b10, 2);
+                output.write(deltaOfDelta, 7);
+            } else if (deltaOfDelta >= -256 && deltaOfDelta < 256) {
+                output.write(0b110, 3);
+                output.write(deltaOfDelta, 9);
+            } else if (deltaOfDelta >= -2048 && deltaOfDelta < 2048) {
+                output.write(0b1110, 4);
+                output.write(deltaOfDelta, 12);
+            } else {
+                output.write(0b1111, 4);
+                output.write(deltaOfDelta, Long.SIZE);
+            }
+        }
+    }
+
+    private static void decodeSteps(BitReader input, long[] steps, int count) {
+        if (count == 0) {
+            return;
+        }
+        long step = input.read(Long.SIZE);
+        steps[0] = step;
+
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            if (input.readBit()) {
+                if (!input.readBit()) {
+                    delta += signExtend(input.read(7), 7);
+                } else if (!input.readBit()) {
+                    delta += signExtend(input.read(9), 9);
+                } else if (!input.readBit()) {
+                    delta += signExtend(input.read(12), 12);
+                } else {
+                    delta += input.read(Long.SIZE);
+                }
+            }
+            step += delta;
+            steps[i] = step;
+        }
+    }
+
+    /**
+     * Every XOR is stored as a full little-endian word and the position only advances past its non-zero
+     * bytes, so the next value overwrites the zeros.
+     */
+    private int encodeValues(double[] column, int count, int firstNibble, int zeroCounts, int position) {
+        double history0 = 0;
+        double history1 = 0;
+        double history2 = 0;
+        double history3 = 0;
+
+        for (int i = 0; i < count; i++) {
+            double value = column[i];
+            long xor = Double.doubleToRawLongBits(value)
+                    ^ Double.doubleToRawLongBits(predict(i, history0, history1, history2, history3));
+            history3 = history2;
+            history2 = history1;
+            history1 = history0;
+            history0 = value;
+
+            int zeroBytes = Long.numberOfLeadingZeros(xor) >>> 3;
+            LONGS.set(bytes, position, xor);
+            position += Long.BYTES - zeroBytes;
+
+            int nibble = firstNibble + i;
+            bytes[zeroCounts + (nibble >>> 1)] |= (byte) (zeroBytes << ((nibble & 1) << 2));
+        }
+        return position;
+    }
+
+    private static int decodeValues(byte[] block, double[] column, int count, int firstNibble, int zeroCounts,
+                                    int position) {
+        double history0 = 0;
+        double history1 = 0;
+        double history2 = 0;
+        double history3 = 0;
+
+        for (int i = 0; i < count; i++) {
+            int nibble = firstNibble + i;
+            int zeroBytes = (block[zeroCounts + (nibble >>> 1)] >>> ((nibble & 1) << 2)) & 0xF;
+            // Shifted in two halves so that eight zero bytes clear the whole word instead of shifting by 64.
+            long mask = -1L >>> (zeroBytes << 2) >>> (zeroBytes << 2);
+            long xor = (long) LONGS.get(block, position) & mask;
+            position += Long.BYTES - zeroBytes;
+
+            double value = Double.longBitsToDouble(xor
+                    ^ Double.doubleToRawLongBits(predict(i, history0, history1, history2, history3)));
+            column[i] = value;
+            history3 = history2;
+            history2 = history1;
+            history1 = history0;
+            history0 = value;
+        }
+        return position;
+    }
+
+    /**
+     * Extrapolates the next value from as many of the last four as the block has seen so far.
+     */
+    private static double predict(int index, double history0, double history1, double history2, double history3) {
+        if (index >= HISTORY) {
+            return 4 * history0 - 6 * history1 + 4 * history2 - history3;
+        }
+        return switch (index) {
+            case 0 -> 0.0;
+            case 1 -> history0;
+            case 2 -> 2 * history0 - history1;
+            default -> 3 * history0 - 3 * history1 + history2;
+        };
+    }
+
+    private static long signExtend(long value, int bits) {
+        return (value << (Long.SIZE - bits)) >> (Long.SIZE - bits);
+    }
+}
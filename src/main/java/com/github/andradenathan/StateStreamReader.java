@@ -0,0 +1,169 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to a stream written by {@link StateStreamWriter}. Reading a record decodes its whole block,
+ * which is kept until a record of another block is requested, so reading records in order decodes every
+ * block exactly once. Not thread-safe.
+ */
+public class StateStreamReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final Arguments arguments;
+    private final Simulation simulation;
+    private final long records;
+    private final int blockRecords;
+    private final long[] blockSteps;
+    private final long[] blockOffsets;
+
+    private final BitReader input = new BitReader();
+    private final long[] steps;
+    private final double[][] values;
+    private byte[] blockBytes = new byte[0];
+    private int cachedBlock = -1;
+
+    public StateStreamReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(StateStreamWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            read(header, 0);
+            if (header.getInt(0) != StateStreamWriter.MAGIC) {
+                throw new IOException("Not a state stream");
+            }
+            if (header.getInt(4) != StateStreamWriter.VERSION) {
+                throw new IOException("Unsupported state stream version: " + header.getInt(4));
+            }
+
+            this.arguments = RecordingFormat.readArguments(header);
+            this.simulation = RecordingFormat.readSimulation(header);
+            this.blockRecords = header.getInt(12);
+            this.records = header.getLong(16);
+            if (blockRecords < 1 || records < 0) {
+                throw new IOException("Unexpected state stream layout");
+            }
+
+            long indexOffset = header.getLong(StateStreamWriter.INDEX_OFFSET);
+            if (indexOffset == 0) {
+                throw new IOException("State stream was not closed");
+            }
+
+            int blocks = (int) ((records + blockRecords - 1) / blockRecords);
+            ByteBuffer index = ByteBuffer.allocate(blocks * 2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            read(index, indexOffset);
+            this.blockSteps = new long[blocks + 1];
+            this.blockOffsets = new long[blocks + 1];
+            for (int block = 0; block < blocks; block++) {
+                blockSteps[block] = index.getLong();
+                blockOffsets[block] = index.getLong();
+            }
+            blockSteps[blocks] = Long.MAX_VALUE;
+            blockOffsets[blocks] = indexOffset;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.steps = new long[blockRecords];
+        this.values = new double[StateStreamCodec.COMPONENTS][blockRecords];
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    public long size() {
+        return records;
+    }
+
+    public long getStep(long record) throws IOException {
+        return steps[load(record)];
+    }
+
+    public double getTime(long record) throws IOException {
+        return getStep(record) * simulation.getTimeStep();
+    }
+
+    public void read(long record, Speed target) throws IOException {
+        int slot = load(record);
+        target.update(values[0][slot], values[1][slot], values[2][slot], values[3][slot]);
+    }
+
+    /**
+     * Returns the last record at or before {@code step}, or the first record when {@code step} precedes
+     * the stream.
+     */
+    public long floorRecord(long step) throws IOException {
+        if (records == 0) {
+            throw new IndexOutOfBoundsException("State stream is empty");
+        }
+
+        int low = 0;
+        int high = blockSteps.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blockSteps[middle] <= step) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        long first = (long) low * blockRecords;
+        decode(low);
+        int slot = 0;
+        int last = (int) Math.min(blockRecords, records - first) - 1;
+        while (slot < last && steps[slot + 1] <= step) {
+            slot++;
+        }
+        return first + slot;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int load(long record) throws IOException {
+        if (record < 0 || record >= records) {
+            throw new IndexOutOfBoundsException("Record " + record + " out of bounds for size " + records);
+        }
+        decode((int) (record / blockRecords));
+        return (int) (record % blockRecords);
+    }
+
+    private void decode(int block) throws IOException {
+        if (block == cachedBlock) {
+            return;
+        }
+
+        int length = (int) (blockOffsets[block + 1] - blockOffsets[block]);
+        if (blockBytes.length < length + BitReader.PADDING) {
+            blockBytes = new byte[length + BitReader.PADDING];
+        }
+        read(ByteBuffer.wrap(blockBytes, 0, length), blockOffsets[block]);
+
+        int count = (int) Math.min(blockRecords, records - (long) block * blockRecords);
+        StateStreamCodec.decode(blockBytes, input, steps, values, count);
+        cachedBlock = block;
+    }
+
+    private void read(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of state stream");
+            }
+            offset += read;
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.andradenathan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes states as a compressed stream of (step, θ1, θ2, ω1, ω2) records, little-endian where bytes
+ * are concerned.
+ *
+ * <pre>
+ * offset  size  header field
+ *      0     4  magic "DPSS"
+ *      4     4  version
+ *      8     4  header size in bytes
+ *     12     4  records per block
+ *     16     8  record count
+ *     24   113  run parameters, as in {@link RecordingFormat}
+ *    144     8  offset of the block index
+ * </pre>
+ *
+ * Blocks of {@value #BLOCK_RECORDS} records follow the header, each encoded on its own by
+ * {@link StateStreamCodec} once it is full, so appending a record only copies it. The block index
+ * at the end of the file holds the first step and the file offset of every block, which lets
+ * {@link StateStreamReader} decode any record after reading a single block. Steps must not
+ * decrease. Not thread-safe.
+ */
+public class StateStreamWriter implements AutoCloseable {
+    public static final int MAGIC = 0x53535044;
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 256;
+    public static final int BLOCK_RECORDS = 4096;
+
+    static final int INDEX_OFFSET = 144;
+
+    private final FileChannel channel;
+    private final ByteBuffer header;
+    private final StateStreamCodec codec = new StateStreamCodec(BLOCK_RECORDS);
+    private final long[] steps = new long[BLOCK_RECORDS];
+    private final double[][] values = new double[StateStreamCodec.COMPONENTS][BLOCK_RECORDS];
+
+    private long[] blockSteps = new long[16];
+    private long[] blockOffsets = new long[16];
+    private int blocks = 0;
+    private int blockSize = 0;
+    private long position = HEADER_BYTES;
+    private long records = 0;
+
+    public StateStreamWriter(Path path, Arguments arguments, Simulation simulation) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+
+        this.header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, HEADER_BYTES);
+        header.putInt(12, BLOCK_RECORDS);
+        RecordingFormat.writeParameters(header, arguments, simulation);
+        writeHeader();
+    }
+
+    public void append(long step, double theta1, double theta2, double omega1, double omega2) throws IOException {
+        if (blockSize == 0) {
+            startBlock(step);
+        }
+
+        steps[blockSize] = step;
+        values[0][blockSize] = theta1;
+        values[1][blockSize] = theta2;
+        values[2][blockSize] = omega1;
+        values[3][blockSize] = omega2;
+        records++;
+
+        if (++blockSize == BLOCK_RECORDS) {
+            finishBlock();
+        }
+    }
+
+    public void append(long step, Speed speed) throws IOException {
+        append(step, speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2());
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Bytes written to the file so far, without the block being encoded and the index.
+     */
+    public long getBytesWritten() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (blockSize > 0) {
+                finishBlock();
+            }
+
+            ByteBuffer index = ByteBuffer.allocate(blocks * 2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int block = 0; block < blocks; block++) {
+                index.putLong(blockSteps[block]);
+                index.putLong(blockOffsets[block]);
+            }
+            index.flip();
+            write(index, position);
+
+            header.putLong(16, records);
+            header.putLong(INDEX_OFFSET, position);
+            writeHeader();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void startBlock(long step) {
+        if (blocks == blockSteps.length) {
+            blockSteps = Arrays.copyOf(blockSteps, blocks * 2);
+            blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+        }
+        blockSteps[blocks] = step;
+        blockOffsets[blocks] = position;
+        blocks++;
+    }
+
+    private void finishBlock() throws IOException {
+        int length = codec.encode(steps, values, blockSize);
+        write(ByteBuffer.wrap(codec.bytes(), 0, length), position);
+        position += length;
+        blockSize = 0;
+    }
+
+    private void writeHeader() throws IOException {
+        write(header.duplicate().clear(), 0);
+    }
+
+    private void write(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+}
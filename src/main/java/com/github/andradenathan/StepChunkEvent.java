@@ -0,0 +1,29 @@
+package com.github.andradenathan;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One batch of integration steps, committed once per batch rather than once per step.
+ */
+@Name("com.github.andradenathan.StepChunk")
+@Label("Step Chunk")
+@Category("Double Pendulum")
+@Description("A batch of integration steps")
+class StepChunkEvent extends jdk.jfr.Event {
+    @Label("Integrator")
+    String integrator;
+
+    @Label("Steps")
+    long steps;
+
+    @Label("Time Step")
+    @Description("Seconds of simulated time per step")
+    double timeStep;
+
+    @Label("Simulation Time")
+    @Description("Simulated seconds at the end of the batch")
+    double simulationTime;
+}
@@ -0,0 +1,77 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.Hamiltonian.MOMENTUM1;
+import static com.github.andradenathan.Hamiltonian.MOMENTUM2;
+import static com.github.andradenathan.Hamiltonian.THETA1;
+import static com.github.andradenathan.Hamiltonian.THETA2;
+
+/**
+ * Generalized Störmer–Verlet (leapfrog) for non-separable Hamiltonians. The half step momenta and
+ * the new angles are implicit and solved by fixed point iteration; the final half kick is explicit.
+ * The method is symmetric and symplectic, of second order.
+ */
+public class StormerVerletIntegrator extends SymplecticIntegrator {
+    private static final int MAX_ITERATIONS = 50;
+    private static final double CONVERGENCE = 1e-14;
+
+    private final double[] velocities = new double[2];
+    private final double[] forces = new double[2];
+
+    @Override
+    public void step(Hamiltonian hamiltonian, double[] state, double timeStep) {
+        double halfStep = timeStep / 2;
+
+        double theta1 = state[THETA1];
+        double theta2 = state[THETA2];
+        double momentum1 = state[MOMENTUM1];
+        double momentum2 = state[MOMENTUM2];
+
+        double halfMomentum1 = momentum1;
+        double halfMomentum2 = momentum2;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            hamiltonian.calculateDerivatives(theta1, theta2, halfMomentum1, halfMomentum2, velocities, forces);
+            double next1 = momentum1 + halfStep * forces[0];
+            double next2 = momentum2 + halfStep * forces[1];
+            boolean converged = isConverged(next1, halfMomentum1) && isConverged(next2, halfMomentum2);
+            halfMomentum1 = next1;
+            halfMomentum2 = next2;
+            if (converged) {
+                break;
+            }
+        }
+
+        hamiltonian.calculateDerivatives(theta1, theta2, halfMomentum1, halfMomentum2, velocities, forces);
+        double startVelocity1 = velocities[0];
+        double startVelocity2 = velocities[1];
+
+        double nextTheta1 = theta1 + timeStep * startVelocity1;
+        double nextTheta2 = theta2 + timeStep * startVelocity2;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            hamiltonian.calculateDerivatives(nextTheta1, nextTheta2, halfMomentum1, halfMomentum2, velocities, forces);
+            double next1 = theta1 + halfStep * (startVelocity1 + velocities[0]);
+            double next2 = theta2 + halfStep * (startVelocity2 + velocities[1]);
+            boolean converged = isConverged(next1, nextTheta1) && isConverged(next2, nextTheta2);
+            nextTheta1 = next1;
+            nextTheta2 = next2;
+            if (converged) {
+                break;
+            }
+        }
+
+        hamiltonian.calculateDerivatives(nextTheta1, nextTheta2, halfMomentum1, halfMomentum2, velocities, forces);
+
+        state[THETA1] = nextTheta1;
+        state[THETA2] = nextTheta2;
+        state[MOMENTUM1] = halfMomentum1 + halfStep * forces[0];
+        state[MOMENTUM2] = halfMomentum2 + halfStep * forces[1];
+    }
+
+    private static boolean isConverged(double next, double previous) {
+        return Math.abs(next - previous) <= CONVERGENCE * (1 + Math.abs(next));
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.STORMER_VERLET;
+    }
+}
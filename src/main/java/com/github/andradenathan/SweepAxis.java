@@ -0,0 +1,93 @@
+package com.github.andradenathan;
+
+import java.util.Arrays;
+
+/**
+ * The values one parameter takes in a {@link ParameterSweep}: either an explicit list or an inclusive
+ * {@code start:end:step} range whose values are computed on demand.
+ */
+public final class SweepAxis {
+    private final double[] values;
+    private final double start;
+    private final double step;
+    private final int size;
+
+    private SweepAxis(double[] values, double start, double step, int size) {
+        this.values = values;
+        this.start = start;
+        this.step = step;
+        this.size = size;
+    }
+
+    public static SweepAxis of(double... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("A sweep axis needs at least one value");
+        }
+        return new SweepAxis(values.clone(), 0, 0, values.length);
+    }
+
+    public static SweepAxis range(double start, double end, double step) {
+        if (!(step > 0) || !(end >= start) || Double.isInfinite(end - start)) {
+            throw new IllegalArgumentException("Invalid range " + start + ":" + end + ":" + step);
+        }
+        // Tolerates the rounding in (end - start) / step so that 0:1:0.1 includes 1.
+        double count = Math.floor((end - start) / step * (1 + 1e-12)) + 1;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range " + start + ":" + end + ":" + step + " is too long");
+        }
+        return new SweepAxis(null, start, step, (int) count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values != null ? values[index] : start + index * step;
+    }
+
+    public double min() {
+        if (values == null) {
+            return start;
+        }
+        double min = values[0];
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    public double max() {
+        if (values == null) {
+            return get(size - 1);
+        }
+        double max = values[0];
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Whether every value is finite. A range has finite bounds by construction.
+     */
+    public boolean isFinite() {
+        if (values == null) {
+            return true;
+        }
+        for (double value : values) {
+            if (!Double.isFinite(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return values != null ? Arrays.toString(values) : "[" + start + ":" + get(size - 1) + ":" + step + "]";
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.andradenathan;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads a {@link ParameterSweep} from the same {@code key=value} format as {@link ArgumentsFileParser}, where
+ * a value is a single number, a comma separated list ({@code m2=5, 10, 20}) or an inclusive range
+ * {@code start:end:step} ({@code theta1=-180:180:0.5}). Angles are in degrees.
+ */
+public class SweepFileParser {
+    public static ParameterSweep fromFile(String filePath) throws IOException {
+        Map<String, SweepAxis> axes = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split("=");
+                if (parts.length == 2) {
+                    try {
+                        String key = parts[0].trim();
+                        SweepAxis axis = parseAxis(parts[1].trim());
+                        ParameterSweep.checkAxis(key, axis);
+                        axes.put(key, axis);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Valor inválido na linha: " + line);
+                    }
+                }
+            }
+        }
+
+        Speed speed = Speed.usingDefault();
+        return new ParameterSweep(
+                axes.getOrDefault("g", SweepAxis.of(9.81)),
+                axes.getOrDefault("m1", SweepAxis.of(10.0)),
+                axes.getOrDefault("L1", SweepAxis.of(150.0)),
+                axes.getOrDefault("m2", SweepAxis.of(10.0)),
+                axes.getOrDefault("L2", SweepAxis.of(150.0)),
+                axes.getOrDefault("theta1", SweepAxis.of(speed.getTheta1InDegrees())),
+                axes.getOrDefault("theta2", SweepAxis.of(speed.getTheta2InDegrees())),
+                axes.getOrDefault("dt", SweepAxis.of(Simulation.faster().getTimeStep())));
+    }
+
+    static SweepAxis parseAxis(String value) {
+        if (value.contains(":")) {
+            String[] range = value.split(":");
+            if (range.length != 3) {
+                throw new IllegalArgumentException("Expected start:end:step, got " + value);
+            }
+            return SweepAxis.range(Double.parseDouble(range[0].trim()), Double.parseDouble(range[1].trim()),
+                    Double.parseDouble(range[2].trim()));
+        }
+
+        String[] list = value.split(",");
+        double[] values = new double[list.length];
+        for (int i = 0; i < list.length; i++) {
+            values[i] = Double.parseDouble(list[i].trim());
+        }
+        return SweepAxis.of(values);
+    }
+}
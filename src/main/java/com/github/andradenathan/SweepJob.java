@@ -0,0 +1,11 @@
+package com.github.andradenathan;
+
+/**
+ * One point of a {@link ParameterSweep}. Angles are in degrees, as in the sweep file.
+ */
+public record SweepJob(long index, Arguments arguments, double theta1, double theta2, double timeStep) {
+
+    public Speed initialSpeed() {
+        return Speed.usingAngles(theta1, theta2);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.andradenathan;
+
+import java.util.Locale;
+
+/**
+ * Summary of one sweep job. The energy error is the largest |E - E0| seen at any step, relative to the energy
+ * scale (m1 + m2) g L1 + m2 g L2, and a flip is any arm passing over the top.
+ *
+ * <p>A job whose integrator failed has a NaN final state and energy error, the steps and flips it reached
+ * before failing, and the failure in {@code error}, which is {@code null} otherwise.
+ */
+public record SweepResult(SweepJob job, Speed finalSpeed, double maxEnergyError, long flips, long steps,
+                          String error) {
+    public static final String HEADER = "job,g,m1,L1,m2,L2,theta1,theta2,dt,steps,"
+            + "final_theta1,final_theta2,final_omega1,final_omega2,max_energy_error,flips,error";
+
+    public SweepResult(SweepJob job, Speed finalSpeed, double maxEnergyError, long flips, long steps) {
+        this(job, finalSpeed, maxEnergyError, flips, steps, null);
+    }
+
+    static SweepResult failed(SweepJob job, long flips, long steps, RuntimeException failure) {
+        return new SweepResult(job, new Speed(Double.NaN, Double.NaN, Double.NaN, Double.NaN), Double.NaN, flips,
+                steps, failure.getClass().getSimpleName() + ": " + failure.getMessage());
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    public String toRow() {
+        Arguments arguments = job.arguments();
+        return String.format(Locale.ROOT, "%d,%s,%s,%s,%s,%s,%s,%s,%s,%d,%.17g,%.17g,%.17g,%.17g,%.6e,%d,%s",
+                job.index(), arguments.gravity(), arguments.mass1(), arguments.length1(), arguments.mass2(),
+                arguments.length2(), job.theta1(), job.theta2(), job.timeStep(), steps,
+                finalSpeed.getTheta1(), finalSpeed.getTheta2(), finalSpeed.getOmega1(), finalSpeed.getOmega2(),
+                maxEnergyError, flips, error == null ? "" : quote(error));
+    }
+
+    /**
+     * Quotes a CSV field, since failure messages may hold commas.
+     */
+    private static String quote(String field) {
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.andradenathan;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs every job of a {@link ParameterSweep} for a fixed simulated duration across a fork/join pool. The
+ * index range is split in halves down to single jobs, so idle workers steal the remaining halves from
+ * the ones stuck on slow, chaotic cases, and jobs are only created when a worker reaches them.
+ *
+ * <p>The listener is called from the worker threads, one call at a time, in completion order.
+ */
+public class SweepRunner {
+    private final Simulation simulation;
+    private final double duration;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param simulation integrator and tolerance for every job; the time step comes from the sweep
+     */
+    public SweepRunner(Simulation simulation, double duration) {
+        this(simulation, duration, ForkJoinPool.commonPool());
+    }
+
+    public SweepRunner(Simulation simulation, double duration, ForkJoinPool pool) {
+        if (!(duration > 0)) {
+            throw new IllegalArgumentException("Duration must be positive: " + duration);
+        }
+        this.simulation = simulation;
+        this.duration = duration;
+        this.pool = pool;
+    }
+
+    public void run(ParameterSweep sweep, Consumer<SweepResult> listener) {
+        run(sweep, 0, sweep.size(), listener);
+    }
+
+    /**
+     * Runs jobs {@code from} (inclusive) to {@code to} (exclusive), e.g. to resume a partial sweep.
+     */
+    public void run(ParameterSweep sweep, long from, long to, Consumer<SweepResult> listener) {
+        if (from < 0 || to > sweep.size() || from > to) {
+            throw new IndexOutOfBoundsException("Jobs " + from + " to " + to + " out of " + sweep.size());
+        }
+        pool.invoke(new RangeTask(sweep, from, to, new Object(), listener));
+    }
+
+    /**
+     * Runs one job. A job whose integrator throws, such as {@link AdaptiveIntegrator} failing to meet its
+     * tolerances, becomes a {@linkplain SweepResult#failed failed} result instead of ending the sweep.
+     */
+    SweepResult run(SweepJob job) {
+        Arguments arguments = job.arguments();
+        SimulationEngine engine = new SimulationEngine(arguments, simulation.withTimeStep(job.timeStep()),
+                job.initialSpeed());
+        Lagrange lagrange = engine.getLagrange();
+        Speed speed = engine.getSpeed();
+
+        double initialEnergy = lagrange.calculateEnergy(speed);
+        double scale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1()
+                + arguments.mass2() * arguments.gravity() * arguments.length2();
+        double maxError = 0;
+        long flips = 0;
+        double turns1 = turns(speed.getTheta1());
+        double turns2 = turns(speed.getTheta2());
+
+        long steps = Math.max(1, Math.round(duration / job.timeStep()));
+        long step = 0;
+        try {
+            for (; step < steps; step++) {
+                engine.step();
+
+                double error = Math.abs(lagrange.calculateEnergy(speed) - initialEnergy) / scale;
+                if (!(error <= maxError)) {
+                    maxError = error;
+                }
+
+                double next1 = turns(speed.getTheta1());
+                double next2 = turns(speed.getTheta2());
+                flips += (long) (Math.abs(next1 - turns1) + Math.abs(next2 - turns2));
+                turns1 = next1;
+                turns2 = next2;
+            }
+        } catch (RuntimeException e) {
+            return SweepResult.failed(job, flips, step, e);
+        }
+
+        return new SweepResult(job, speed.copy(), maxError, flips, steps);
+    }
+
+    /**
+     * Number of times an angle has wound past ±π, the upright position.
+     */
+    private static double turns(double theta) {
+        return Math.floor((theta + Math.PI) / (2 * Math.PI));
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private final ParameterSweep sweep;
+        private final long from;
+        private final long to;
+        private final Object lock;
+        private final Consumer<SweepResult> listener;
+
+        RangeTask(ParameterSweep sweep, long from, long to, Object lock, Consumer<SweepResult> listener) {
+            this.sweep = sweep;
+            this.from = from;
+            this.to = to;
+            this.lock = lock;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                long middle = from + (to - from) / 2;
+                invokeAll(new RangeTask(sweep, from, middle, lock, listener),
+                        new RangeTask(sweep, middle, to, lock, listener));
+                return;
+            }
+
+            if (to > from) {
+                SweepResult result = run(sweep.job(from));
+                synchronized (lock) {
+                    listener.accept(result);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.Lagrange.OMEGA1;
+import static com.github.andradenathan.Lagrange.OMEGA2;
+import static com.github.andradenathan.Lagrange.THETA1;
+import static com.github.andradenathan.Lagrange.THETA2;
+
+/**
+ * Base for integrators that advance the canonical {@link Hamiltonian} state. When driven through
+ * {@link Integrator#step(Lagrange, Speed, double)} the canonical state is kept between calls, so
+ * the momenta are not rebuilt from the velocities unless the speed was changed from outside.
+ */
+public abstract class SymplecticIntegrator implements Integrator {
+    private final double[] canonical = new double[4];
+    private final double[] last = new double[4];
+    private Hamiltonian hamiltonian;
+
+    @Override
+    public void step(Lagrange lagrange, Speed speed, double timeStep) {
+        Hamiltonian current = hamiltonian(lagrange.getArguments());
+
+        if (!isLastSpeed(speed)) {
+            current.toCanonical(speed, canonical);
+        }
+
+        step(current, canonical, timeStep);
+        current.toSpeed(canonical, speed);
+
+        last[THETA1] = speed.getTheta1();
+        last[THETA2] = speed.getTheta2();
+        last[OMEGA1] = speed.getOmega1();
+        last[OMEGA2] = speed.getOmega2();
+    }
+
+    public abstract void step(Hamiltonian hamiltonian, double[] state, double timeStep);
+
+    private Hamiltonian hamiltonian(Arguments arguments) {
+        if (hamiltonian == null || !hamiltonian.getArguments().equals(arguments)) {
+            hamiltonian = new Hamiltonian(arguments);
+            last[OMEGA1] = Double.NaN;
+        }
+        return hamiltonian;
+    }
+
+    private boolean isLastSpeed(Speed speed) {
+        return speed.getTheta1() == last[THETA1] && speed.getTheta2() == last[THETA2]
+                && speed.getOmega1() == last[OMEGA1] && speed.getOmega2() == last[OMEGA2];
+    }
+}
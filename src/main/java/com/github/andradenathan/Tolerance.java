@@ -0,0 +1,15 @@
+package com.github.andradenathan;
+
+public record Tolerance(double absolute, double relative) {
+
+    public Tolerance {
+        if (!(absolute > 0) || !(relative > 0) || Double.isInfinite(absolute) || Double.isInfinite(relative)) {
+            throw new IllegalArgumentException("Tolerances must be positive and finite: atol=" + absolute
+                    + ", rtol=" + relative);
+        }
+    }
+
+    public static Tolerance usingDefault() {
+        return new Tolerance(1e-9, 1e-9);
+    }
+}
@@ -1,30 +1,74 @@
 package com.github.andradenathan;
 
-import java.awt.geom.Point2D;
-import java.util.ArrayList;
-
+/**
+ * Fixed-capacity ring buffer of trail points. Once full, adding a point overwrites the oldest one.
+ * Index 0 is the oldest point and {@code size() - 1} the newest.
+ */
 public class Trajectory {
-    private final ArrayList<Point2D.Double> points;
+    private final double[] xs;
+    private final double[] ys;
     private final int maxPoints;
 
+    private int head = 0;
+    private int size = 0;
+
     public Trajectory(int maxPoints) {
-        this.points = new ArrayList<>();
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("Trajectory needs room for at least one point: " + maxPoints);
+        }
+        this.xs = new double[maxPoints];
+        this.ys = new double[maxPoints];
         this.maxPoints = maxPoints;
     }
 
-    public void addPoint(double x, double y) {
-        points.add(new Point2D.Double(x,y));
+    /**
+     * Adds a point and returns whether the trajectory was full, so the oldest point was overwritten.
+     */
+    public boolean addPoint(double x, double y) {
+        int tail = head + size;
+        if (tail >= maxPoints) {
+            tail -= maxPoints;
+        }
+
+        xs[tail] = x;
+        ys[tail] = y;
 
-        if (points.size() > maxPoints) {
-            points.remove(0);
+        if (size < maxPoints) {
+            size++;
+            return false;
+        }
+        if (++head == maxPoints) {
+            head = 0;
         }
+        return true;
+    }
+
+    public int size() {
+        return size;
     }
 
-    public ArrayList<Point2D.Double> getPoints() {
-        return points;
+    public double getX(int index) {
+        return xs[slot(index)];
+    }
+
+    public double getY(int index) {
+        return ys[slot(index)];
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
     }
 
     public void clear() {
-        points.clear();
+        head = 0;
+        size = 0;
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int slot = head + index;
+        return slot >= maxPoints ? slot - maxPoints : slot;
     }
 }
@@ -0,0 +1,22 @@
+package com.github.andradenathan;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Trail points dropped from a full {@link Trajectory} during one batch of steps, or all of them on a reset.
+ */
+@Name("com.github.andradenathan.TrajectoryEviction")
+@Label("Trajectory Eviction")
+@Category("Double Pendulum")
+@Description("Trail points dropped from the trajectory")
+class TrajectoryEvictionEvent extends jdk.jfr.Event {
+    @Label("Evicted Points")
+    int evicted;
+
+    @Label("Reset")
+    @Description("Whether the whole trail was cleared by a reset")
+    boolean reset;
+}
@@ -0,0 +1,31 @@
+package com.github.andradenathan;
+
+/**
+ * Constants shared by {@link FastTrig} and {@link VectorTrig}: pi/2 split in three parts for the Cody–Waite
+ * reduction, with {@code ROUNDING} rounding a double to the nearest whole number, and the coefficients of the
+ * fdlibm sine ({@code S1..S6}) and cosine ({@code C1..C6}) kernels on |r| <= pi/4.
+ */
+final class TrigConstants {
+    static final double TWO_OVER_PI = 6.36619772367581382433e-01;
+    static final double PI_OVER_TWO_1 = 1.57079632673412561417e+00;
+    static final double PI_OVER_TWO_2 = 6.07710050630396597660e-11;
+    static final double PI_OVER_TWO_3 = 2.02226624879595063154e-21;
+    static final double ROUNDING = 0x1.8p52;
+
+    static final double S1 = -1.66666666666666324348e-01;
+    static final double S2 = 8.33333333332248946124e-03;
+    static final double S3 = -1.98412698298579493134e-04;
+    static final double S4 = 2.75573137070700676789e-06;
+    static final double S5 = -2.50507602534068634195e-08;
+    static final double S6 = 1.58969099521155010221e-10;
+
+    static final double C1 = 4.16666666666666019037e-02;
+    static final double C2 = -1.38888888888741095749e-03;
+    static final double C3 = 2.48015872894767294178e-05;
+    static final double C4 = -2.75573143513906633035e-07;
+    static final double C5 = 2.08757232129817482790e-09;
+    static final double C6 = -1.13596475577881948265e-11;
+
+    private TrigConstants() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.andradenathan;
+
+/**
+ * How {@link LagrangeKernel} evaluates sine and cosine. {@link #FAST} uses {@link FastTrig}, which is
+ * within {@value FastTrig#MAX_ERROR} of {@link Math} and makes a kernel call 1.3 to 1.6 times as fast
+ * (LagrangeKernelBenchmark).
+ */
+public enum TrigMode {
+    MATH("math"),
+    FAST("fast");
+
+    private final String name;
+
+    TrigMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static TrigMode fromName(String name) {
+        for (TrigMode mode : values()) {
+            if (mode.name.equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trig mode: " + name);
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.andradenathan;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Steps {@link DoubleVector#SPECIES_PREFERRED} pendulums per iteration (4 lanes on AVX2, 8 on
+ * AVX-512) with the same equations as {@link ScalarEnsembleKernel}. The trigonometry comes from
+ * {@link VectorTrig}; sin(theta1 - 2 theta2) and cos(2 delta) are rebuilt from the sine and cosine of
+ * theta1 and delta, so each step needs two lane-wise sine/cosine pairs. Members that do not fill a
+ * whole vector are handed to the scalar kernel.
+ *
+ * <p>Only load this class after {@link EnsembleKernel#isVectorSupported()} returned true.
+ */
+public class VectorEnsembleKernel implements EnsembleKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarEnsembleKernel tail;
+
+    private final double mass2;
+    private final double length1;
+    private final double length2;
+    private final double gravity;
+    private final double massSum;
+    private final double twoMass1PlusMass2;
+
+    public VectorEnsembleKernel(Arguments arguments) {
+        this.tail = new ScalarEnsembleKernel(arguments);
+        this.mass2 = arguments.mass2();
+        this.length1 = arguments.length1();
+        this.length2 = arguments.length2();
+        this.gravity = arguments.gravity();
+        this.massSum = arguments.mass1() + arguments.mass2();
+        this.twoMass1PlusMass2 = 2 * arguments.mass1() + arguments.mass2();
+    }
+
+    public static int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void advance(double[] theta1, double[] theta2, double[] omega1, double[] omega2,
+                        int from, int to, int steps, double timeStep) {
+        int upperBound = from + SPECIES.loopBound(to - from);
+
+        for (int index = from; index < upperBound; index += SPECIES.length()) {
+            DoubleVector t1 = DoubleVector.fromArray(SPECIES, theta1, index);
+            DoubleVector t2 = DoubleVector.fromArray(SPECIES, theta2, index);
+            DoubleVector w1 = DoubleVector.fromArray(SPECIES, omega1, index);
+            DoubleVector w2 = DoubleVector.fromArray(SPECIES, omega2, index);
+
+            for (int step = 0; step < steps; step++) {
+                DoubleVector delta = t1.sub(t2);
+
+                DoubleVector k1 = VectorTrig.quadrants(t1);
+                DoubleVector r1 = VectorTrig.reduce(t1, k1);
+                DoubleVector q1 = VectorTrig.quadrant(k1);
+                DoubleVector sinR1 = VectorTrig.sinPolynomial(r1);
+                DoubleVector cosR1 = VectorTrig.cosPolynomial(r1);
+                DoubleVector sin1 = VectorTrig.sin(sinR1, cosR1, q1);
+                DoubleVector cos1 = VectorTrig.cos(sinR1, cosR1, q1);
+
+                DoubleVector kd = VectorTrig.quadrants(delta);
+                DoubleVector rd = VectorTrig.reduce(delta, kd);
+                DoubleVector qd = VectorTrig.quadrant(kd);
+                DoubleVector sinRd = VectorTrig.sinPolynomial(rd);
+                DoubleVector cosRd = VectorTrig.cosPolynomial(rd);
+                DoubleVector sinDelta = VectorTrig.sin(sinRd, cosRd, qd);
+                DoubleVector cosDelta = VectorTrig.cos(sinRd, cosRd, qd);
+
+                DoubleVector cosTwoDelta = sinDelta.mul(sinDelta).mul(-2.0).add(1.0);
+                DoubleVector sinTwoDelta = sinDelta.mul(cosDelta).mul(2.0);
+                DoubleVector sinShifted = sinTwoDelta.mul(cos1).sub(cosTwoDelta.mul(sin1));
+
+                DoubleVector denominator = cosTwoDelta.mul(-mass2).add(twoMass1PlusMass2);
+                DoubleVector w1Squared = w1.mul(w1);
+                DoubleVector w2Squared = w2.mul(w2);
+
+                DoubleVector numerator1 = sin1.mul(-gravity * twoMass1PlusMass2)
+                        .sub(sinShifted.mul(mass2 * gravity))
+                        .sub(sinDelta.mul(2 * mass2).mul(
+                                w2Squared.mul(length2).add(w1Squared.mul(length1).mul(cosDelta))));
+
+                DoubleVector numerator2 = sinDelta.mul(2.0).mul(
+                        w1Squared.mul(length1 * massSum)
+                                .add(cos1.mul(gravity * massSum))
+                                .add(w2Squared.mul(length2 * mass2).mul(cosDelta)));
+
+                w1 = w1.add(numerator1.div(denominator.mul(length1)).mul(timeStep));
+                w2 = w2.add(numerator2.div(denominator.mul(length2)).mul(timeStep));
+                t1 = t1.add(w1.mul(timeStep));
+                t2 = t2.add(w2.mul(timeStep));
+            }
+
+            t1.intoArray(theta1, index);
+            t2.intoArray(theta2, index);
+            w1.intoArray(omega1, index);
+            w2.intoArray(omega2, index);
+        }
+
+        if (upperBound < to) {
+            tail.advance(theta1, theta2, omega1, omega2, upperBound, to, steps, timeStep);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vector";
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.TrigConstants.C1;
+import static com.github.andradenathan.TrigConstants.C2;
+import static com.github.andradenathan.TrigConstants.C3;
+import static com.github.andradenathan.TrigConstants.C4;
+import static com.github.andradenathan.TrigConstants.C5;
+import static com.github.andradenathan.TrigConstants.C6;
+import static com.github.andradenathan.TrigConstants.PI_OVER_TWO_1;
+import static com.github.andradenathan.TrigConstants.PI_OVER_TWO_2;
+import static com.github.andradenathan.TrigConstants.PI_OVER_TWO_3;
+import static com.github.andradenathan.TrigConstants.ROUNDING;
+import static com.github.andradenathan.TrigConstants.S1;
+import static com.github.andradenathan.TrigConstants.S2;
+import static com.github.andradenathan.TrigConstants.S3;
+import static com.github.andradenathan.TrigConstants.S4;
+import static com.github.andradenathan.TrigConstants.S5;
+import static com.github.andradenathan.TrigConstants.S6;
+import static com.github.andradenathan.TrigConstants.TWO_OVER_PI;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Lane-wise sine and cosine for the Vector API. The argument is reduced to |r| <= pi/4 with a three
+ * part Cody–Waite reduction by multiples of pi/2 and evaluated with the fdlibm kernel polynomials.
+ * For |x| <= 1e6 the absolute error against {@link Math#sin} and {@link Math#cos} stays below
+ * 5e-16 (checked by VectorTrigTest); beyond that the reduction loses accuracy.
+ */
+final class VectorTrig {
+    private VectorTrig() {
+    }
+
+    static DoubleVector sin(DoubleVector x) {
+        DoubleVector k = quadrants(x);
+        DoubleVector r = reduce(x, k);
+        return sin(sinPolynomial(r), cosPolynomial(r), quadrant(k));
+    }
+
+    static DoubleVector cos(DoubleVector x) {
+        DoubleVector k = quadrants(x);
+        DoubleVector r = reduce(x, k);
+        return cos(sinPolynomial(r), cosPolynomial(r), quadrant(k));
+    }
+
+    /** Nearest multiple of pi/2, as a whole number in double lanes. */
+    static DoubleVector quadrants(DoubleVector x) {
+        return x.mul(TWO_OVER_PI).add(ROUNDING).sub(ROUNDING);
+    }
+
+    static DoubleVector reduce(DoubleVector x, DoubleVector k) {
+        return x.sub(k.mul(PI_OVER_TWO_1)).sub(k.mul(PI_OVER_TWO_2)).sub(k.mul(PI_OVER_TWO_3));
+    }
+
+    /** {@code k mod 4} in the range 0..3. */
+    static DoubleVector quadrant(DoubleVector k) {
+        DoubleVector turns = k.mul(0.25).add(ROUNDING).sub(ROUNDING);
+        DoubleVector quadrant = k.sub(turns.mul(4.0));
+        return quadrant.add(4.0, quadrant.compare(VectorOperators.LT, 0.0));
+    }
+
+    static DoubleVector sinPolynomial(DoubleVector r) {
+        DoubleVector z = r.mul(r);
+        DoubleVector polynomial = z.fma(S6, S5).mul(z).add(S4).mul(z).add(S3).mul(z).add(S2).mul(z).add(S1);
+        return r.add(r.mul(z).mul(polynomial));
+    }
+
+    static DoubleVector cosPolynomial(DoubleVector r) {
+        DoubleVector z = r.mul(r);
+        DoubleVector polynomial = z.fma(C6, C5).mul(z).add(C4).mul(z).add(C3).mul(z).add(C2).mul(z).add(C1);
+        return z.mul(-0.5).add(1.0).add(z.mul(z).mul(polynomial));
+    }
+
+    static DoubleVector sin(DoubleVector sinR, DoubleVector cosR, DoubleVector quadrant) {
+        VectorMask<Double> odd = quadrant.compare(VectorOperators.EQ, 1.0)
+                .or(quadrant.compare(VectorOperators.EQ, 3.0));
+        VectorMask<Double> negative = quadrant.compare(VectorOperators.GE, 2.0);
+        return sinR.blend(cosR, odd).lanewise(VectorOperators.NEG, negative);
+    }
+
+    static DoubleVector cos(DoubleVector sinR, DoubleVector cosR, DoubleVector quadrant) {
+        VectorMask<Double> odd = quadrant.compare(VectorOperators.EQ, 1.0)
+                .or(quadrant.compare(VectorOperators.EQ, 3.0));
+        VectorMask<Double> negative = quadrant.compare(VectorOperators.EQ, 1.0)
+                .or(quadrant.compare(VectorOperators.EQ, 2.0));
+        return cosR.blend(sinR, odd).lanewise(VectorOperators.NEG, negative);
+    }
+}
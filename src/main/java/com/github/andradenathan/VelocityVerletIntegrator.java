@@ -0,0 +1,50 @@
+package com.github.andradenathan;
+
+import static com.github.andradenathan.Lagrange.OMEGA1;
+import static com.github.andradenathan.Lagrange.OMEGA2;
+import static com.github.andradenathan.Lagrange.THETA1;
+import static com.github.andradenathan.Lagrange.THETA2;
+
+/**
+ * Kick-drift-kick velocity Verlet. The double pendulum accelerations also depend on the angular
+ * velocities, so the closing half kick is solved with one predictor iteration, for three acceleration
+ * evaluations per step. The last of them is taken at the predicted velocities rather than the final
+ * ones, so it cannot serve as the opening kick of the next step.
+ */
+public class VelocityVerletIntegrator extends StateIntegrator {
+    private final double[] state = new double[DIMENSION];
+    private final double[] derivative = new double[DIMENSION];
+
+    @Override
+    double[] state() {
+        return state;
+    }
+
+    @Override
+    void step(Lagrange lagrange, double[] y, double timeStep) {
+        double halfStep = timeStep / 2;
+
+        derivative(lagrange, y, derivative);
+        y[OMEGA1] += halfStep * derivative[OMEGA1];
+        y[OMEGA2] += halfStep * derivative[OMEGA2];
+
+        y[THETA1] += timeStep * y[OMEGA1];
+        y[THETA2] += timeStep * y[OMEGA2];
+
+        double halfOmega1 = y[OMEGA1];
+        double halfOmega2 = y[OMEGA2];
+
+        derivative(lagrange, y, derivative);
+        y[OMEGA1] = halfOmega1 + halfStep * derivative[OMEGA1];
+        y[OMEGA2] = halfOmega2 + halfStep * derivative[OMEGA2];
+
+        derivative(lagrange, y, derivative);
+        y[OMEGA1] = halfOmega1 + halfStep * derivative[OMEGA1];
+        y[OMEGA2] = halfOmega2 + halfStep * derivative[OMEGA2];
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.VERLET;
+    }
+}
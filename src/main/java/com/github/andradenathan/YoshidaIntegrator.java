@@ -0,0 +1,25 @@
+package com.github.andradenathan;
+
+/**
+ * Yoshida's fourth order composition of three generalized Störmer–Verlet steps. Every sub step is
+ * symplectic, so the composition is too; the middle step runs backwards in time.
+ */
+public class YoshidaIntegrator extends SymplecticIntegrator {
+    private static final double CUBE_ROOT_OF_TWO = Math.cbrt(2);
+    private static final double OUTER_WEIGHT = 1 / (2 - CUBE_ROOT_OF_TWO);
+    private static final double INNER_WEIGHT = -CUBE_ROOT_OF_TWO / (2 - CUBE_ROOT_OF_TWO);
+
+    private final StormerVerletIntegrator leapfrog = new StormerVerletIntegrator();
+
+    @Override
+    public void step(Hamiltonian hamiltonian, double[] state, double timeStep) {
+        leapfrog.step(hamiltonian, state, OUTER_WEIGHT * timeStep);
+        leapfrog.step(hamiltonian, state, INNER_WEIGHT * timeStep);
+        leapfrog.step(hamiltonian, state, OUTER_WEIGHT * timeStep);
+    }
+
+    @Override
+    public IntegratorType getType() {
+        return IntegratorType.YOSHIDA;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ensemble Engine Tests")
+class EnsembleEngineTest {
+
+    @Test
+    @DisplayName("Every member should follow the same path as a single Lagrange integration")
+    void testMembersMatchLagrange() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate();
+        Speed base = new Speed(Math.PI / 2, Math.PI / 3, 0.0, 0.0);
+        int size = 10_000;
+        double spread = 1e-3;
+
+        EnsembleEngine engine = EnsembleEngine.spread(arguments, simulation, base, size, spread);
+        engine.step(200);
+
+        Lagrange lagrange = new Lagrange(arguments);
+        Speed actual = new Speed(0, 0, 0, 0);
+        for (int index : new int[]{0, 1, size / 2, size - 1}) {
+            Speed expected = new Speed(base.getTheta1() + index * spread, base.getTheta2(), 0.0, 0.0);
+            for (int i = 0; i < 200; i++) {
+                lagrange.integrate(expected, simulation.getTimeStep());
+            }
+
+            engine.copyInto(index, actual);
+            assertEquals(expected.getTheta1(), actual.getTheta1(), 1e-9, "theta1 of member " + index);
+            assertEquals(expected.getTheta2(), actual.getTheta2(), 1e-9, "theta2 of member " + index);
+            assertEquals(expected.getOmega1(), actual.getOmega1(), 1e-9, "omega1 of member " + index);
+            assertEquals(expected.getOmega2(), actual.getOmega2(), 1e-9, "omega2 of member " + index);
+        }
+    }
+
+    @Test
+    @DisplayName("Split stepping should equal one batched call")
+    void testStepBatchesAreEquivalent() {
+        Arguments arguments = Arguments.usingDefault();
+        Speed base = Speed.usingDefault();
+
+        EnsembleEngine batched = EnsembleEngine.spread(arguments, Simulation.usingDefault(), base, 64, 1e-6);
+        EnsembleEngine split = EnsembleEngine.spread(arguments, Simulation.usingDefault(), base, 64, 1e-6);
+
+        batched.step(100);
+        for (int i = 0; i < 4; i++) {
+            split.step(25);
+        }
+
+        assertEquals(100, split.getSteps());
+        assertArrayEquals(batched.theta1(), split.theta1());
+        assertArrayEquals(batched.omega2(), split.omega2());
+    }
+
+    @Test
+    @DisplayName("Vector kernel should agree with the scalar kernel, including the scalar tail")
+    void testVectorKernelMatchesScalar() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate();
+        Speed base = Speed.usingAngles(120, -10);
+        int size = 4099;
+
+        EnsembleEngine scalar = EnsembleEngine.spread(arguments, simulation, base, size, 1e-4,
+                new ScalarEnsembleKernel(arguments));
+        EnsembleEngine vector = EnsembleEngine.spread(arguments, simulation, base, size, 1e-4,
+                new VectorEnsembleKernel(arguments));
+
+        scalar.step(300);
+        vector.step(300);
+
+        for (int index = 0; index < size; index++) {
+            assertEquals(scalar.theta1()[index], vector.theta1()[index], 1e-9, "theta1 of member " + index);
+            assertEquals(scalar.theta2()[index], vector.theta2()[index], 1e-9, "theta2 of member " + index);
+            assertEquals(scalar.omega1()[index], vector.omega1()[index], 1e-9, "omega1 of member " + index);
+            assertEquals(scalar.omega2()[index], vector.omega2()[index], 1e-9, "omega2 of member " + index);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ensemble Loop Tests")
+class EnsembleLoopTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Chunked stepping should match the engine stepped in one call")
+    void testMatchesEngine() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.usingDefault();
+        Speed base = Speed.usingAngles(120, -10);
+        EnsembleKernel kernel = new ScalarEnsembleKernel(arguments);
+        EnsembleLoop loop = new EnsembleLoop(arguments, simulation, base, 100, 1e-6, kernel, START);
+
+        long now = START + 5 * PhysicsLoop.FRAME_NANOS;
+        while (loop.advance(now) == 0) {
+            // Each call runs one chunk of the due steps.
+        }
+
+        EnsembleEngine engine = EnsembleEngine.spread(arguments, simulation, base, 100, 1e-6, kernel);
+        engine.step(5 * simulation.getStepsPerFrame());
+
+        double[] theta1 = new double[100];
+        double[] theta2 = new double[100];
+        Speed first = new Speed(0, 0, 0, 0);
+        loop.snapshot(theta1, theta2, first);
+
+        assertEquals(engine.getSteps(), loop.getSteps());
+        assertArrayEquals(engine.theta1(), theta1);
+        assertArrayEquals(engine.theta2(), theta2);
+        assertEquals(engine.omega1()[0], first.getOmega1());
+    }
+
+    @Test
+    @DisplayName("Reset should spread the members around the base state again")
+    void testReset() {
+        Arguments arguments = Arguments.usingDefault();
+        Speed base = Speed.usingDefault();
+        EnsembleLoop loop = new EnsembleLoop(arguments, Simulation.usingDefault(), base, 10, 1e-3,
+                new ScalarEnsembleKernel(arguments), START);
+
+        loop.advance(START + PhysicsLoop.FRAME_NANOS);
+        assertTrue(loop.getSteps() > 0);
+
+        loop.reset();
+        double[] theta1 = new double[10];
+        double[] theta2 = new double[10];
+        loop.snapshot(theta1, theta2, new Speed(0, 0, 0, 0));
+
+        assertEquals(0, loop.getSteps());
+        assertEquals(base.getTheta1() + 9 * 1e-3, theta1[9], 1e-15);
+        assertEquals(base.getTheta2(), theta2[9]);
+    }
+
+    @Test
+    @DisplayName("Divergence should be zero for identical members and grow as they spread")
+    void testDivergence() {
+        Arguments arguments = Arguments.usingDefault();
+        EnsembleRaster raster = new EnsembleRaster(arguments, Simulation.usingDefault(), 1050, 700, 2);
+
+        double[] together = {0.5, 0.5};
+        assertEquals(0, raster.draw(together, together, 2), 1e-6);
+
+        double[] theta1 = {0, Math.PI};
+        double[] theta2 = {0, Math.PI};
+        assertEquals(arguments.length1() + arguments.length2(), raster.draw(theta1, theta2, 2), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Members should be drawn over the background and stay left of the sidebar")
+    void testRasterStaysInScene() {
+        Simulation simulation = Simulation.usingDefault();
+        EnsembleRaster raster = new EnsembleRaster(Arguments.usingDefault(), simulation, 1050, 700, 3);
+        raster.captureBackground();
+
+        // Horizontal arms to the right run past the scene into the sidebar.
+        double[] theta = {Math.PI / 2, Math.PI / 2, -Math.PI / 2};
+        raster.draw(theta, theta, 3);
+
+        int sceneWidth = 1050 - PendulumRenderer.SIDEBAR_WIDTH;
+        int y = simulation.getYOrigin();
+        assertNotEquals(0, raster.getImage().getRGB(simulation.getXOrigin() + 50, y) & 0xFFFFFF);
+        assertNotEquals(0, raster.getImage().getRGB(simulation.getXOrigin() - 50, y) & 0xFFFFFF);
+        for (int x = sceneWidth; x < 1050; x++) {
+            assertEquals(0, raster.getImage().getRGB(x, y) & 0xFFFFFF, "sidebar pixel " + x);
+        }
+    }
+}
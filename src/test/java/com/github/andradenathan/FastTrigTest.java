@@ -0,0 +1,103 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fast Trigonometry Tests")
+class FastTrigTest {
+
+    @Test
+    @DisplayName("sin/cos should stay within the documented error on a dense grid")
+    void testDenseGrid() {
+        double[] values = new double[1 << 16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -4 * Math.PI + 8 * Math.PI * i / (values.length - 1);
+        }
+        assertMaxError(values);
+    }
+
+    @Test
+    @DisplayName("sin/cos should stay within the documented error for large spinning angles")
+    void testLargeArguments() {
+        Random random = new Random(42);
+        double[] values = new double[1 << 14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (random.nextDouble() * 2 - 1) * FastTrig.MAX_ARGUMENT;
+        }
+        assertMaxError(values);
+    }
+
+    @Test
+    @DisplayName("Quadrant boundaries, huge arguments and special values should match Math")
+    void testBoundariesAndFallback() {
+        double[] values = new double[64];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i - values.length / 2) * Math.PI / 2;
+        }
+        assertMaxError(values);
+        assertMaxError(new double[]{0.0, -0.0, FastTrig.MAX_ARGUMENT, -FastTrig.MAX_ARGUMENT});
+
+        for (double x : new double[]{2e6, -1e300, Double.NaN, Double.POSITIVE_INFINITY}) {
+            assertEquals(Math.sin(x), FastTrig.sin(x), 0.0, "sin(" + x + ")");
+            assertEquals(Math.cos(x), FastTrig.cos(x), 0.0, "cos(" + x + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Fast trig should not change a trajectory before chaos amplifies rounding")
+    void testTrajectoryDivergence() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate().withIntegrator(IntegratorType.RK4);
+        Speed initialSpeed = Speed.usingAngles(120, -10);
+
+        SimulationEngine math = new SimulationEngine(arguments, simulation, initialSpeed);
+        SimulationEngine fast = new SimulationEngine(arguments, simulation.withTrigMode(TrigMode.FAST), initialSpeed);
+        assertEquals(TrigMode.FAST, fast.getLagrange().getKernel().getTrigMode());
+
+        for (int checkpoint = 0; checkpoint < 10; checkpoint++) {
+            math.step(1000);
+            fast.step(1000);
+            double tolerance = 1e-9;
+            assertEquals(math.getSpeed().getTheta1(), fast.getSpeed().getTheta1(), tolerance, "t = " + math.getSimulationTime());
+            assertEquals(math.getSpeed().getTheta2(), fast.getSpeed().getTheta2(), tolerance, "t = " + math.getSimulationTime());
+            assertEquals(math.getSpeed().getOmega1(), fast.getSpeed().getOmega1(), tolerance, "t = " + math.getSimulationTime());
+            assertEquals(math.getSpeed().getOmega2(), fast.getSpeed().getOmega2(), tolerance, "t = " + math.getSimulationTime());
+        }
+    }
+
+    @Test
+    @DisplayName("Fast trig should not add energy drift over a long chaotic run")
+    void testEnergyDrift() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate().withIntegrator(IntegratorType.RK4);
+        Speed initialSpeed = Speed.usingAngles(120, -10);
+        LagrangeKernel kernel = new LagrangeKernel(arguments);
+        double scale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1()
+                + arguments.mass2() * arguments.gravity() * arguments.length2();
+        double initialEnergy = energy(kernel, initialSpeed);
+
+        SimulationEngine math = new SimulationEngine(arguments, simulation, initialSpeed);
+        SimulationEngine fast = new SimulationEngine(arguments, simulation.withTrigMode(TrigMode.FAST), initialSpeed);
+        math.step(50_000);
+        fast.step(50_000);
+
+        double mathDrift = Math.abs(energy(kernel, math.getSpeed()) - initialEnergy) / scale;
+        double fastDrift = Math.abs(energy(kernel, fast.getSpeed()) - initialEnergy) / scale;
+        assertTrue(fastDrift <= 2 * mathDrift + 1e-12, "fast drift " + fastDrift + " vs math drift " + mathDrift);
+    }
+
+    private static double energy(LagrangeKernel kernel, Speed speed) {
+        return kernel.energy(speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2());
+    }
+
+    private static void assertMaxError(double[] values) {
+        for (double x : values) {
+            assertEquals(Math.sin(x), FastTrig.sin(x), FastTrig.MAX_ERROR, "sin(" + x + ")");
+            assertEquals(Math.cos(x), FastTrig.cos(x), FastTrig.MAX_ERROR, "cos(" + x + ")");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.andradenathan;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JFR Event Tests")
+class FlightRecorderEventsTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Engine batches should be recorded as one step chunk each")
+    void testStepChunks() throws IOException {
+        Path file = directory.resolve("steps.jfr");
+        SimulationEngine engine = new SimulationEngine(Arguments.usingDefault(),
+                Simulation.accurate().withIntegrator(IntegratorType.RK4), Speed.usingDefault());
+
+        try (Recording recording = new Recording()) {
+            recording.enable(StepChunkEvent.class).withoutThreshold();
+            recording.start();
+            engine.step(1000);
+            engine.step(500);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = read(file, "com.github.andradenathan.StepChunk");
+        assertEquals(2, events.size());
+        assertEquals(1000, events.get(0).getLong("steps"));
+        assertEquals("rk4", events.get(0).getString("integrator"));
+        assertEquals(15.0, events.get(1).getDouble("simulationTime"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Points pushed out of a full trail and a reset should be recorded as evictions")
+    void testTrajectoryEvictions() throws IOException {
+        Path file = directory.resolve("evictions.jfr");
+        Simulation simulation = new Simulation(0.01, 1, 10, 400, 350);
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), simulation, Speed.usingAngles(120, -10), START);
+
+        long steps;
+        try (Recording recording = new Recording()) {
+            recording.enable(TrajectoryEvictionEvent.class).withoutThreshold();
+            recording.enable(StepChunkEvent.class).withoutThreshold();
+            recording.start();
+            // A slow batch may return early, so keep advancing until all 25 steps have run.
+            for (int frame = 0; frame < 10 && loop.getSteps() < 25; frame++) {
+                loop.advance(START + (25 + frame) * PhysicsLoop.FRAME_NANOS);
+            }
+            steps = loop.getSteps();
+            loop.reset(Speed.usingDefault());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> evictions = read(file, "com.github.andradenathan.TrajectoryEviction");
+        RecordedEvent reset = evictions.get(evictions.size() - 1);
+        assertTrue(reset.getBoolean("reset"));
+        assertEquals(10, reset.getInt("evicted"));
+        assertEquals(steps - 10, evictions.stream().filter(event -> !event.getBoolean("reset"))
+                .mapToLong(event -> event.getInt("evicted")).sum());
+        assertEquals(steps, read(file, "com.github.andradenathan.StepChunk").stream()
+                .mapToLong(event -> event.getLong("steps")).sum());
+    }
+
+    @Test
+    @DisplayName("Painting should record per-layer timings, rebuilding the layers only on the first frame")
+    void testFrames() throws IOException {
+        Path file = directory.resolve("frames.jfr");
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.usingDefault();
+        PhysicsLoop loop = new PhysicsLoop(arguments, simulation, Speed.usingAngles(120, -10), START);
+        DoublePendulum panel = new DoublePendulum(arguments, simulation, Speed.usingAngles(120, -10), loop);
+        loop.stop();
+        // Run ten frames of steps on this thread so the trail has points, then stop the repaint timer.
+        loop.advance(System.nanoTime() + 10 * PhysicsLoop.FRAME_NANOS);
+        panel.togglePause();
+        panel.setSize(1050, 700);
+
+        BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        try (Recording recording = new Recording()) {
+            recording.enable(FrameEvent.class).withoutThreshold();
+            recording.start();
+            for (int frame = 0; frame < 2; frame++) {
+                Graphics2D graphics = image.createGraphics();
+                panel.paintComponent(graphics);
+                graphics.dispose();
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> frames = read(file, "com.github.andradenathan.Frame");
+        assertEquals(2, frames.size());
+        RecordedEvent first = frames.get(0);
+        assertTrue(first.getBoolean("layersRebuilt"));
+        assertTrue(first.getDuration("backgroundNanos").toNanos() > 0);
+        assertTrue(first.getDuration("trajectoryNanos").toNanos() > 0);
+        assertTrue(first.getDuration("pendulumsNanos").toNanos() > 0);
+        assertTrue(first.getInt("trailPoints") > 0);
+        assertFalse(frames.get(1).getBoolean("layersRebuilt"));
+    }
+
+    private static List<RecordedEvent> read(Path file, String name) throws IOException {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
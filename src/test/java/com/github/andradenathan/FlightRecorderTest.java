@@ -0,0 +1,99 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flight Recorder Tests")
+class FlightRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Records spanning several mapped segments should read back in order")
+    void testRecordsAcrossSegments() throws IOException {
+        Path file = directory.resolve("states.dpfr");
+        try (FlightRecorder recorder = new FlightRecorder(file, Arguments.usingDefault(), Simulation.faster(), 4)) {
+            for (int i = 0; i < 10; i++) {
+                recorder.record(i * 0.1, i, -i, 2 * i, -2 * i, 100 + i);
+            }
+        }
+
+        ByteBuffer buffer = read(file);
+        RecordingFormat.validate(buffer);
+        assertEquals(10, RecordingFormat.readRecordCount(buffer));
+
+        for (int i = 0; i < 10; i++) {
+            int offset = RecordingFormat.HEADER_BYTES + i * RecordingFormat.RECORD_BYTES;
+            assertEquals(i * 0.1, buffer.getDouble(offset + RecordingFormat.TIME), 0.0);
+            assertEquals(-i, buffer.getDouble(offset + RecordingFormat.THETA2), 0.0);
+            assertEquals(2 * i, buffer.getDouble(offset + RecordingFormat.OMEGA1), 0.0);
+            assertEquals(100 + i, buffer.getDouble(offset + RecordingFormat.ENERGY), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Header should carry the physical and simulation parameters")
+    void testHeaderRoundTrip() throws IOException {
+        Path file = directory.resolve("header.dpfr");
+        Arguments arguments = new Arguments(9.81, 2.0, 120.0, 3.0, 80.0);
+        Simulation simulation = Simulation.accurate()
+                .withIntegrator(IntegratorType.ADAPTIVE)
+                .withTolerance(new Tolerance(1e-10, 1e-8));
+
+        new FlightRecorder(file, arguments, simulation).close();
+
+        ByteBuffer buffer = read(file);
+        RecordingFormat.validate(buffer);
+        Simulation read = RecordingFormat.readSimulation(buffer);
+
+        assertEquals(arguments, RecordingFormat.readArguments(buffer));
+        assertEquals(0, RecordingFormat.readRecordCount(buffer));
+        assertEquals(simulation.getTimeStep(), read.getTimeStep(), 0.0);
+        assertEquals(simulation.getStepsPerFrame(), read.getStepsPerFrame());
+        assertEquals(simulation.getTotalFrames(), read.getTotalFrames());
+        assertEquals(simulation.getXOrigin(), read.getXOrigin());
+        assertEquals(IntegratorType.ADAPTIVE, read.getIntegrator());
+        assertEquals(simulation.getTolerance(), read.getTolerance());
+    }
+
+    @Test
+    @DisplayName("Engine should record the initial state and every step after it")
+    void testEngineRecordsEveryStep() throws IOException {
+        Path file = directory.resolve("engine.dpfr");
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.usingDefault();
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingDefault());
+
+        try (FlightRecorder recorder = new FlightRecorder(file, arguments, simulation, 16)) {
+            engine.setRecorder(recorder);
+            engine.step(40);
+            engine.step();
+        }
+
+        ByteBuffer buffer = read(file);
+        assertEquals(42, RecordingFormat.readRecordCount(buffer));
+
+        int last = RecordingFormat.HEADER_BYTES + 41 * RecordingFormat.RECORD_BYTES;
+        Speed speed = engine.getSpeed();
+        assertEquals(engine.getSimulationTime(), buffer.getDouble(last + RecordingFormat.TIME), 1e-12);
+        assertEquals(speed.getTheta1(), buffer.getDouble(last + RecordingFormat.THETA1), 0.0);
+        assertEquals(speed.getOmega2(), buffer.getDouble(last + RecordingFormat.OMEGA2), 0.0);
+        assertEquals(engine.getLagrange().calculateEnergy(speed),
+                buffer.getDouble(last + RecordingFormat.ENERGY), 0.0);
+        assertEquals(Math.PI / 2, buffer.getDouble(RecordingFormat.HEADER_BYTES + RecordingFormat.THETA1), 0.0);
+    }
+
+    private static ByteBuffer read(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
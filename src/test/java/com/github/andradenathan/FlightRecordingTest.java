@@ -0,0 +1,174 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flight Recording Replay Tests")
+class FlightRecordingTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Seeking should find the last record at or before a time across index blocks")
+    void testFloorRecord() throws IOException {
+        Path file = directory.resolve("index.dpfr");
+        int records = 3 * FlightRecording.INDEX_STRIDE + 17;
+        try (FlightRecorder recorder = new FlightRecorder(file, Arguments.usingDefault(), Simulation.faster())) {
+            for (int i = 0; i < records; i++) {
+                recorder.record(i * 0.5, i, 0, 0, 0, 0);
+            }
+        }
+
+        try (FlightRecording recording = new FlightRecording(file)) {
+            assertEquals(records, recording.size());
+            assertEquals((records - 1) * 0.5, recording.getEndTime(), 0.0);
+
+            for (int i = 0; i < records; i += 97) {
+                assertEquals(i, recording.floorRecord(i * 0.5), "exact time of record " + i);
+                assertEquals(i, recording.floorRecord(i * 0.5 + 0.25), "between records " + i + " and " + (i + 1));
+            }
+            assertEquals(FlightRecording.INDEX_STRIDE, recording.floorRecord(FlightRecording.INDEX_STRIDE * 0.5));
+            assertEquals(0, recording.floorRecord(-1.0));
+            assertEquals(records - 1, recording.floorRecord(1e9));
+
+            Speed speed = new Speed(0, 0, 0, 0);
+            recording.read(records - 1, speed);
+            assertEquals(records - 1, speed.getTheta1(), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Playback at 1x should show the recorded run at the live loop's pace")
+    void testPlaybackMatchesEngine() throws IOException {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.usingDefault();
+        Path file = record(arguments, simulation, 2000);
+
+        try (FlightRecording recording = new FlightRecording(file)) {
+            RecordingPlayer player = new RecordingPlayer(recording, START);
+            Speed speed = new Speed(0, 0, 0, 0);
+            player.interpolate(speed, START + PhysicsLoop.FRAMES_PER_SECOND * PhysicsLoop.FRAME_NANOS);
+
+            SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingDefault());
+            engine.step((long) PhysicsLoop.FRAMES_PER_SECOND * simulation.getStepsPerFrame());
+
+            assertEquals(engine.getSimulationTime(), player.getSimulationTime(), 1e-6);
+            assertEquals(engine.getSpeed().getTheta1(), speed.getTheta1(), 1e-6);
+            assertEquals(engine.getSpeed().getOmega2(), speed.getOmega2(), 1e-6);
+        }
+    }
+
+    @Test
+    @DisplayName("Rewinding should rebuild the trail up to the new position")
+    void testRewindRebuildsTrail() throws IOException {
+        Simulation simulation = Simulation.usingDefault();
+        Path file = record(Arguments.usingDefault(), simulation, 4000);
+
+        try (FlightRecording recording = new FlightRecording(file)) {
+            RecordingPlayer player = new RecordingPlayer(recording, START);
+            Speed speed = new Speed(0, 0, 0, 0);
+            player.interpolate(speed, START + 100 * PhysicsLoop.FRAME_NANOS);
+
+            Trajectory trajectory = player.getTrajectory();
+            synchronized (trajectory) {
+                assertEquals(101, trajectory.size());
+            }
+
+            player.setPaused(true);
+            player.skip(-60);
+            player.interpolate(speed, START + 200 * PhysicsLoop.FRAME_NANOS);
+
+            long record = 40L * simulation.getStepsPerFrame();
+            assertEquals(record, player.getSteps());
+            synchronized (trajectory) {
+                assertEquals(41, trajectory.size());
+                double x = trajectory.getX(trajectory.size() - 1);
+                assertEquals(x, trailX(recording, record), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Playback should pause at the end and start over when resumed")
+    void testPausesAtEnd() throws IOException {
+        Path file = record(Arguments.usingDefault(), Simulation.usingDefault(), 100);
+
+        try (FlightRecording recording = new FlightRecording(file)) {
+            RecordingPlayer player = new RecordingPlayer(recording, START);
+            player.skip(1000);
+            player.interpolate(new Speed(0, 0, 0, 0), START + 1);
+
+            assertTrue(player.isPaused());
+            assertEquals(recording.getEndTime(), player.getSimulationTime(), 0.0);
+
+            player.setPaused(false);
+            assertEquals(0.0, player.getSimulationTime(), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Files that are not recordings should be rejected")
+    void testRejectsInvalidFile() throws IOException {
+        Path file = directory.resolve("config.txt");
+        Files.writeString(file, "g=9.81\n".repeat(100));
+
+        assertThrows(IOException.class, () -> new FlightRecording(file));
+    }
+
+    @Test
+    @DisplayName("Corrupt run parameters in the header should be rejected as I/O errors")
+    void testRejectsCorruptHeader() throws IOException {
+        Path file = record(Arguments.usingDefault(), Simulation.usingDefault(), 10);
+        byte[] valid = Files.readAllBytes(file);
+
+        // Offsets from the RecordingFormat layout: name length, name, tolerance, time step and steps per frame.
+        assertCorrupt(file, valid, 104, (byte) -1);
+        assertCorrupt(file, valid, 105, (byte) 'x');
+        assertCorrupt(file, valid, 88, doubleBytes(-1e-9));
+        assertCorrupt(file, valid, 64, doubleBytes(Double.NaN));
+        assertCorrupt(file, valid, 72, new byte[4]);
+    }
+
+    private Path record(Arguments arguments, Simulation simulation, int steps) throws IOException {
+        Path file = directory.resolve("run.dpfr");
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingDefault());
+        try (FlightRecorder recorder = new FlightRecorder(file, arguments, simulation)) {
+            engine.setRecorder(recorder);
+            engine.step(steps);
+        }
+        return file;
+    }
+
+    private static void assertCorrupt(Path file, byte[] valid, int offset, byte... bytes) throws IOException {
+        byte[] corrupt = valid.clone();
+        System.arraycopy(bytes, 0, corrupt, offset, bytes.length);
+        Files.write(file, corrupt);
+
+        IOException error = assertThrows(IOException.class, () -> new FlightRecording(file));
+        assertTrue(error.getMessage().startsWith("Corrupt recording header: "), error.getMessage());
+    }
+
+    private static byte[] doubleBytes(double value) {
+        return ByteBuffer.allocate(Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).putDouble(value).array();
+    }
+
+    private static double trailX(FlightRecording recording, long record) {
+        Speed speed = new Speed(0, 0, 0, 0);
+        recording.read(record, speed);
+        Arguments arguments = recording.getArguments();
+        return recording.getSimulation().getXOrigin()
+                + arguments.length1() * Math.sin(speed.getTheta1()) + arguments.length2() * Math.sin(speed.getTheta2());
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flip Fractal Tests")
+class FlipFractalTest {
+
+    private static final double TIME_STEP = Simulation.usingDefault().getTimeStep();
+
+    @Test
+    @DisplayName("Tiled parallel rendering should match a pixel-by-pixel sweep")
+    void testTilesMatchSerialSweep() {
+        Arguments arguments = Arguments.usingDefault();
+        int width = 131;
+        int height = 70;
+        FlipFractal fractal = new FlipFractal(arguments, TIME_STEP, 30.0, width, height, new ForkJoinPool(4));
+
+        float[] flipTimes = new float[width * height];
+        FractalReport report = fractal.compute(flipTimes);
+
+        Lagrange lagrange = new Lagrange(arguments);
+        double[] state = new double[4];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float expected = fractal.flipTime(lagrange, state, fractal.theta1At(x), fractal.theta2At(y));
+                assertEquals(expected, flipTimes[y * width + x], "pixel (" + x + ", " + y + ")");
+            }
+        }
+
+        assertEquals(width * height, report.pixels());
+        assertEquals(lagrange.getEvaluations(), report.evaluations());
+    }
+
+    @Test
+    @DisplayName("Low energy starts should be skipped without integrating")
+    void testEnergyBelowThresholdIsSkipped() {
+        FlipFractal fractal = new FlipFractal(Arguments.usingDefault(), TIME_STEP, 100.0, 1, 1);
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+
+        float time = fractal.flipTime(lagrange, new double[4], Math.toRadians(30), Math.toRadians(-20));
+
+        assertEquals(FlipFractal.NO_FLIP, time);
+        assertEquals(0, lagrange.getEvaluations(), "Should not integrate a start that cannot flip");
+    }
+
+    @Test
+    @DisplayName("A start close to the top should flip quickly")
+    void testNearInvertedFlips() {
+        FlipFractal fractal = new FlipFractal(Arguments.usingDefault(), TIME_STEP, 100.0, 1, 1);
+
+        float time = fractal.flipTime(new Lagrange(Arguments.usingDefault()), new double[4],
+                Math.toRadians(175), Math.toRadians(175));
+
+        assertTrue(time > 0 && time < 20, "Flip time " + time);
+    }
+
+    @Test
+    @DisplayName("Image should have the grid size and paint non-flipping pixels black")
+    void testImage() {
+        FlipFractal fractal = new FlipFractal(Arguments.usingDefault(), TIME_STEP, 10.0, 16, 8);
+        float[] flipTimes = new float[16 * 8];
+        fractal.compute(flipTimes);
+
+        BufferedImage image = fractal.toImage(flipTimes);
+
+        assertEquals(16, image.getWidth());
+        assertEquals(8, image.getHeight());
+        assertEquals(FlipFractal.NO_FLIP, flipTimes[4 * 16 + 8], "Centre pixel hangs at rest");
+        assertEquals(0, image.getRGB(8, 4) & 0xFFFFFF);
+    }
+}
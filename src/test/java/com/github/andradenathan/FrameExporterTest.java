@@ -0,0 +1,121 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Frame Export Tests")
+class FrameExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("GIF frames should decode to the palette indices they were encoded from")
+    void testGifRoundTrip() throws IOException {
+        int width = 300;
+        int height = 200;
+        int[] palette = new int[GifWriter.COLORS];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = i << 16 | (255 - i) << 8 | (i * 7 & 0xFF);
+        }
+
+        Random random = new Random(3);
+        byte[][] frames = new byte[3][width * height];
+        for (int i = 0; i < frames[0].length; i++) {
+            // Noise overflows the 4096-code table many times; runs exercise long strings.
+            frames[0][i] = (byte) random.nextInt(256);
+            frames[1][i] = (byte) (i / 997);
+            frames[2][i] = (byte) (i % 13 == 0 ? random.nextInt(4) : 0);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GifWriter writer = new GifWriter(bytes, width, height, palette)) {
+            for (byte[] frame : frames) {
+                writer.writeFrame(GifWriter.encodeFrame(frame, width, height, 4));
+            }
+        }
+
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            reader.setInput(input);
+            assertEquals(frames.length, reader.getNumImages(true));
+            for (int frame = 0; frame < frames.length; frame++) {
+                BufferedImage image = reader.read(frame);
+                for (int i = 0; i < width * height; i += 7) {
+                    assertEquals(palette[frames[frame][i] & 0xFF], image.getRGB(i % width, i / width) & 0xFFFFFF,
+                            "pixel " + i + " of frame " + frame);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("PNG frames should decode to the pixels they were written from")
+    void testPngRoundTrip() throws IOException {
+        BufferedImage expected = new BufferedImage(123, 45, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) expected.getRaster().getDataBuffer()).getData();
+        Random random = new Random(5);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt(4) == 0 ? random.nextInt(1 << 24) : 0x121218;
+        }
+
+        Path file = directory.resolve("frame.png");
+        new PngWriter(expected.getWidth(), expected.getHeight()).write(file, pixels);
+
+        BufferedImage actual = ImageIO.read(file.toFile());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Export should write every frame in order with bounded parallelism")
+    void testExport() throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            FrameExporter exporter = new FrameExporter(Arguments.usingDefault(), Simulation.usingDefault(),
+                    Speed.usingAngles(120, -10), 400, 300, 20, 1.0, executor, 3);
+
+            Path gif = directory.resolve("clip.gif");
+            ExportReport report = exporter.export(gif, 1.5);
+            assertEquals(30, report.frames());
+            assertEquals(Files.size(gif), report.bytes());
+
+            ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+            try (ImageInputStream input = ImageIO.createImageInputStream(gif.toFile())) {
+                reader.setInput(input);
+                assertEquals(30, reader.getNumImages(true));
+                assertEquals(400, reader.getWidth(0));
+            }
+
+            Path frames = directory.resolve("frames");
+            exporter.export(frames, 0.5);
+            try (var files = Files.list(frames)) {
+                assertEquals(10, files.count());
+            }
+            assertNotNull(ImageIO.read(frames.resolve("frame-00009.png").toFile()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hamiltonian Mechanics Tests")
+class HamiltonianTest {
+
+    private Arguments arguments;
+    private Hamiltonian hamiltonian;
+    private Lagrange lagrange;
+
+    @BeforeEach
+    void setUp() {
+        arguments = new Arguments(9.81, 7.0, 120.0, 13.0, 90.0);
+        hamiltonian = new Hamiltonian(arguments);
+        lagrange = new Lagrange(arguments);
+    }
+
+    @Test
+    @DisplayName("Canonical round trip: Speed -> momenta -> Speed should be lossless")
+    void testCanonicalRoundTrip() {
+        Speed speed = new Speed(1.1, -0.4, 0.7, -1.3);
+        double[] state = new double[4];
+
+        hamiltonian.toCanonical(speed, state);
+        Speed restored = new Speed(0, 0, 0, 0);
+        hamiltonian.toSpeed(state, restored);
+
+        assertEquals(speed.getTheta1(), restored.getTheta1(), 1e-12);
+        assertEquals(speed.getTheta2(), restored.getTheta2(), 1e-12);
+        assertEquals(speed.getOmega1(), restored.getOmega1(), 1e-12);
+        assertEquals(speed.getOmega2(), restored.getOmega2(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Energy: Hamiltonian should equal the Lagrangian energy")
+    void testEnergyMatchesLagrange() {
+        Speed speed = new Speed(2.0, 0.5, -0.3, 0.9);
+        double[] state = new double[4];
+        hamiltonian.toCanonical(speed, state);
+
+        assertEquals(lagrange.calculateEnergy(speed), hamiltonian.calculateEnergy(state), 1e-8);
+    }
+
+    @Test
+    @DisplayName("Equations of motion: Momentum rate should match the Lagrangian dynamics")
+    void testForcesMatchLagrangianDynamics() {
+        Speed speed = new Speed(1.0, 2.5, 0.4, -0.2);
+        double epsilon = 1e-4;
+
+        double[] before = momentaAfter(speed, -epsilon);
+        double[] after = momentaAfter(speed, epsilon);
+
+        double[] state = new double[4];
+        double[] velocities = new double[2];
+        double[] forces = new double[2];
+        hamiltonian.toCanonical(speed, state);
+        hamiltonian.calculateDerivatives(state[0], state[1], state[2], state[3], velocities, forces);
+
+        assertEquals(speed.getOmega1(), velocities[0], 1e-12);
+        assertEquals(speed.getOmega2(), velocities[1], 1e-12);
+        assertEquals((after[2] - before[2]) / (2 * epsilon), forces[0], 1e-4 * Math.abs(forces[0]) + 1e-6);
+        assertEquals((after[3] - before[3]) / (2 * epsilon), forces[1], 1e-4 * Math.abs(forces[1]) + 1e-6);
+    }
+
+    @Test
+    @DisplayName("Symplectic integration: Energy error should stay bounded over long runs")
+    void testBoundedEnergyError() {
+        Speed speed = Speed.usingAngles(120, -10);
+        double scale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1();
+
+        for (SymplecticIntegrator integrator : new SymplecticIntegrator[]{
+                new StormerVerletIntegrator(), new YoshidaIntegrator()}) {
+            double[] state = new double[4];
+            hamiltonian.toCanonical(speed, state);
+            double initialEnergy = hamiltonian.calculateEnergy(state);
+
+            double earlyError = 0;
+            double lateError = 0;
+            for (int step = 0; step < 200_000; step++) {
+                integrator.step(hamiltonian, state, 0.05);
+                double error = Math.abs(hamiltonian.calculateEnergy(state) - initialEnergy) / scale;
+                if (step < 20_000) {
+                    earlyError = Math.max(earlyError, error);
+                } else {
+                    lateError = Math.max(lateError, error);
+                }
+            }
+
+            assertTrue(lateError < 1e-2, integrator.getType() + " energy error " + lateError);
+            assertTrue(lateError < 10 * earlyError + 1e-9,
+                    integrator.getType() + " energy error should not drift: " + earlyError + " -> " + lateError);
+        }
+    }
+
+    @Test
+    @DisplayName("Symplectic integrators should drive Speed through the Integrator interface")
+    void testIntegratorInterface() {
+        Speed reference = Speed.usingAngles(60, 30);
+        Integrator rungeKutta = IntegratorType.RK4.create();
+        for (int i = 0; i < 200; i++) {
+            rungeKutta.step(lagrange, reference, 0.005);
+        }
+
+        Speed speed = Speed.usingAngles(60, 30);
+        Integrator yoshida = IntegratorType.YOSHIDA.create();
+        for (int i = 0; i < 20; i++) {
+            yoshida.step(lagrange, speed, 0.05);
+        }
+
+        assertEquals(reference.getTheta1(), speed.getTheta1(), 1e-6);
+        assertEquals(reference.getOmega2(), speed.getOmega2(), 1e-6);
+    }
+
+    private double[] momentaAfter(Speed speed, double time) {
+        Speed moved = speed.copy();
+        Integrator integrator = IntegratorType.DORMAND_PRINCE.create();
+        integrator.step(lagrange, moved, time);
+
+        double[] state = new double[4];
+        hamiltonian.toCanonical(moved, state);
+        return state;
+    }
+}
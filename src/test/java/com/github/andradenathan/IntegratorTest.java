@@ -0,0 +1,176 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Integrator Tests")
+class IntegratorTest {
+
+    private static final double DURATION = 20.0;
+    private static final double EULER_TIME_STEP = Simulation.accurate().getTimeStep();
+
+    @ParameterizedTest
+    @CsvSource({"rk4, 0.2", "verlet, 0.15", "dopri, 0.3"})
+    @DisplayName("Higher order integrators beat the accurate Euler preset with 5x fewer evaluations")
+    void testFewerEvaluationsForSameEnergyError(String name, double timeStep) {
+        Lagrange eulerLagrange = new Lagrange(Arguments.usingDefault());
+        double eulerError = maxEnergyError(eulerLagrange, IntegratorType.EULER.create(), EULER_TIME_STEP);
+
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+        double error = maxEnergyError(lagrange, IntegratorType.fromName(name).create(), timeStep);
+
+        double ratio = (double) eulerLagrange.getEvaluations() / lagrange.getEvaluations();
+        assertTrue(ratio >= 4.9,
+                name + " used " + lagrange.getEvaluations() + " evaluations, Euler used "
+                        + eulerLagrange.getEvaluations());
+        assertTrue(error < eulerError,
+                name + " energy error " + error + " should be below Euler's " + eulerError);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = IntegratorType.class, mode = EnumSource.Mode.EXCLUDE, names = "ADAPTIVE")
+    @DisplayName("Every fixed step integrator should converge to the reference solution as dt shrinks")
+    void testConvergence(IntegratorType type) {
+        Speed reference = integrate(IntegratorType.DORMAND_PRINCE, 0.001, 2.0);
+        Speed coarse = integrate(type, 0.01, 2.0);
+        Speed fine = integrate(type, 0.005, 2.0);
+
+        double coarseError = Math.abs(coarse.getTheta1() - reference.getTheta1());
+        double fineError = Math.abs(fine.getTheta1() - reference.getTheta1());
+
+        assertTrue(fineError < coarseError || fineError < 1e-10,
+                type + " error should shrink with dt: " + coarseError + " -> " + fineError);
+    }
+
+    @ParameterizedTest
+    @EnumSource(IntegratorType.class)
+    @DisplayName("Integrators should be selectable by their CLI name")
+    void testFromName(IntegratorType type) {
+        assertEquals(type, IntegratorType.fromName(type.getName()));
+        assertEquals(type, type.create().getType());
+    }
+
+    @Test
+    @DisplayName("Adaptive stepping should match the reference within tolerance")
+    void testAdaptiveAccuracy() {
+        Speed reference = integrate(IntegratorType.DORMAND_PRINCE, 0.001, 2.0);
+
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+        AdaptiveIntegrator integrator = new AdaptiveIntegrator(new Tolerance(1e-10, 1e-10));
+        Speed speed = Speed.usingAngles(90, 45);
+        for (int i = 0; i < 4; i++) {
+            integrator.step(lagrange, speed, 0.5);
+        }
+
+        assertEquals(reference.getTheta1(), speed.getTheta1(), 1e-7);
+        assertEquals(reference.getTheta2(), speed.getTheta2(), 1e-7);
+        assertTrue(integrator.getAcceptedSteps() > 0, "Should count accepted steps");
+    }
+
+    @Test
+    @DisplayName("Adaptive stepping should need fewer evaluations than fixed Dormand-Prince for the same error")
+    void testAdaptiveSavesEvaluations() {
+        Lagrange fixedLagrange = new Lagrange(Arguments.usingDefault());
+        double fixedError = maxEnergyError(fixedLagrange, new DormandPrinceIntegrator(), 0.05);
+
+        Lagrange adaptiveLagrange = new Lagrange(Arguments.usingDefault());
+        AdaptiveIntegrator adaptive = new AdaptiveIntegrator(new Tolerance(1e-10, 1e-10));
+        double adaptiveError = maxEnergyError(adaptiveLagrange, adaptive, 2.0);
+
+        assertTrue(adaptiveLagrange.getEvaluations() < fixedLagrange.getEvaluations(),
+                "Adaptive used " + adaptiveLagrange.getEvaluations() + " evaluations, fixed used "
+                        + fixedLagrange.getEvaluations());
+        assertTrue(adaptiveError < fixedError,
+                "Adaptive energy error " + adaptiveError + " should be below fixed " + fixedError);
+        assertEquals(adaptiveLagrange.getEvaluations(),
+                6 * (adaptive.getAcceptedSteps() + adaptive.getRejectedSteps()) + 1,
+                "Every attempt should cost six evaluations thanks to first-same-as-last reuse");
+    }
+
+    @Test
+    @DisplayName("Tighter tolerances should reduce the error")
+    void testAdaptiveToleranceControlsError() {
+        Speed reference = integrate(IntegratorType.DORMAND_PRINCE, 0.001, 2.0);
+
+        double looseError = adaptiveError(reference, 1e-4);
+        double tightError = adaptiveError(reference, 1e-10);
+
+        assertTrue(tightError < looseError, "Error should shrink: " + looseError + " -> " + tightError);
+    }
+
+    @Test
+    @DisplayName("Adaptive stepping should fail instead of looping when the tolerances cannot be met")
+    void testAdaptiveFailsOnUnreachableTolerance() {
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+        Integrator tight = IntegratorType.ADAPTIVE.create(new Tolerance(1e-300, 1e-300));
+        assertThrows(IllegalStateException.class, () -> tight.step(lagrange, Speed.usingAngles(90, 45), 0.1));
+
+        Integrator integrator = IntegratorType.ADAPTIVE.create(Tolerance.usingDefault());
+        Speed broken = new Speed(Double.NaN, 0, 0, 0);
+        assertThrows(IllegalStateException.class, () -> integrator.step(lagrange, broken, 0.1));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 1e-9", "1e-9, 0", "-1e-9, 1e-9", "NaN, 1e-9", "1e-9, Infinity"})
+    @DisplayName("Tolerances should be positive and finite")
+    void testInvalidTolerance(double absolute, double relative) {
+        assertThrows(IllegalArgumentException.class, () -> new Tolerance(absolute, relative));
+    }
+
+    @Test
+    @DisplayName("Velocity Verlet should not gain energy steadily at the faster preset's time step")
+    void testVerletEnergyDriftAtLargeStep() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.faster().withIntegrator(IntegratorType.VERLET);
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingDefault());
+        double initialEnergy = engine.getLagrange().calculateEnergy(engine.getSpeed());
+
+        engine.step(100_000);
+
+        // The default start has zero total energy, so the drift is measured against the potential energy range.
+        double scale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1()
+                + arguments.mass2() * arguments.gravity() * arguments.length2();
+        double drift = engine.getLagrange().calculateEnergy(engine.getSpeed()) - initialEnergy;
+        assertTrue(Double.isFinite(drift), "Energy should stay finite");
+        assertTrue(Math.abs(drift) < 0.02 * scale, "Energy drifted by " + drift + " J");
+    }
+
+    private static double adaptiveError(Speed reference, double tolerance) {
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+        Integrator integrator = IntegratorType.ADAPTIVE.create(new Tolerance(tolerance, tolerance));
+        Speed speed = Speed.usingAngles(90, 45);
+        integrator.step(lagrange, speed, 2.0);
+        return Math.abs(speed.getTheta1() - reference.getTheta1());
+    }
+
+    private static double maxEnergyError(Lagrange lagrange, Integrator integrator, double timeStep) {
+        Speed speed = Speed.usingAngles(120, -10);
+        double initialEnergy = lagrange.calculateEnergy(speed);
+        double maxError = 0;
+
+        long steps = Math.round(DURATION / timeStep);
+        for (long step = 0; step < steps; step++) {
+            integrator.step(lagrange, speed, timeStep);
+            double error = Math.abs(lagrange.calculateEnergy(speed) - initialEnergy) / Math.abs(initialEnergy);
+            maxError = Math.max(maxError, error);
+        }
+        return maxError;
+    }
+
+    private static Speed integrate(IntegratorType type, double timeStep, double duration) {
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+        Integrator integrator = type.create();
+        Speed speed = Speed.usingAngles(90, 45);
+
+        long steps = Math.round(duration / timeStep);
+        for (long step = 0; step < steps; step++) {
+            integrator.step(lagrange, speed, timeStep);
+        }
+        return speed;
+    }
+}
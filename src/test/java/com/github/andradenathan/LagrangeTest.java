@@ -4,7 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.lang.management.ManagementFactory;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @DisplayName("Lagrange Mechanics Tests")
 class LagrangeTest {
@@ -190,4 +193,141 @@ class LagrangeTest {
 
         assertTrue(Double.isFinite(difference), "Difference should be finite");
     }
+
+    @Test
+    @DisplayName("Primitive integration: State array should follow the same path as Speed")
+    void testPrimitiveIntegrationMatchesSpeed() {
+        Speed speed = new Speed(Math.PI / 3, Math.PI / 5, 0.2, -0.1);
+        double[] state = {speed.getTheta1(), speed.getTheta2(), speed.getOmega1(), speed.getOmega2()};
+
+        for (int i = 0; i < 1000; i++) {
+            lagrange.integrate(speed, 0.01);
+            lagrange.integrate(state, 0.01);
+        }
+
+        assertEquals(speed.getTheta1(), state[Lagrange.THETA1], 0.0);
+        assertEquals(speed.getTheta2(), state[Lagrange.THETA2], 0.0);
+        assertEquals(speed.getOmega1(), state[Lagrange.OMEGA1], 0.0);
+        assertEquals(speed.getOmega2(), state[Lagrange.OMEGA2], 0.0);
+    }
+
+    @Test
+    @DisplayName("Allocation: Integration steps should not allocate")
+    void testIntegrationDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                "Thread allocation accounting is not available on this JVM");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Thread allocation accounting is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+        Speed speed = new Speed(Math.PI / 3, Math.PI / 5, 0.0, 0.0);
+        double[] state = {Math.PI / 3, Math.PI / 5, 0.0, 0.0};
+
+        for (int i = 0; i < 20_000; i++) {
+            lagrange.integrate(speed, 0.001);
+            lagrange.integrate(state, 0.001);
+        }
+        threadBean.getThreadAllocatedBytes(threadId);
+
+        int steps = 1_000_000;
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < steps; i++) {
+            lagrange.integrate(speed, 0.001);
+            lagrange.integrate(state, 0.001);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // The measurement itself may allocate a few bytes once; anything per step would be megabytes here.
+        assertEquals(0, allocated / steps, "Integration allocated " + allocated + " bytes over " + steps + " steps");
+    }
+
+    @Test
+    @DisplayName("Jacobian: Analytic derivatives should match central finite differences in both trig modes")
+    void testJacobianMatchesFiniteDifferences() {
+        double[] state = {1.3, -0.7, 0.05, -0.08};
+        for (TrigMode trigMode : TrigMode.values()) {
+            Lagrange lagrange = new Lagrange(defaultArguments, trigMode);
+            double[] jacobian = new double[16];
+            lagrange.calculateJacobian(state[0], state[1], state[2], state[3], jacobian);
+
+            double epsilon = 1e-6;
+            double[] plus = new double[2];
+            double[] minus = new double[2];
+            for (int column = 0; column < 4; column++) {
+                double[] shifted = state.clone();
+                shifted[column] += epsilon;
+                lagrange.calculateAccelerations(shifted[0], shifted[1], shifted[2], shifted[3], plus);
+                shifted[column] -= 2 * epsilon;
+                lagrange.calculateAccelerations(shifted[0], shifted[1], shifted[2], shifted[3], minus);
+
+                for (int row = 0; row < 2; row++) {
+                    double expected = (plus[row] - minus[row]) / (2 * epsilon);
+                    assertEquals(expected, jacobian[(Lagrange.OMEGA1 + row) * 4 + column], 1e-7,
+                            trigMode + " d(alpha" + (row + 1) + ")/d(state[" + column + "])");
+                }
+            }
+
+            assertEquals(1.0, jacobian[Lagrange.THETA1 * 4 + Lagrange.OMEGA1]);
+            assertEquals(1.0, jacobian[Lagrange.THETA2 * 4 + Lagrange.OMEGA2]);
+            assertEquals(0.0, jacobian[Lagrange.THETA1 * 4 + Lagrange.THETA1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Kernel: Accelerations should match the textbook equations of motion")
+    void testKernelMatchesTextbookEquations() {
+        Arguments arguments = new Arguments(9.81, 3.0, 120.0, 7.0, 80.0);
+        LagrangeKernel kernel = new LagrangeKernel(arguments);
+        java.util.Random random = new java.util.Random(5);
+        double[] accelerations = new double[2];
+
+        for (int i = 0; i < 1000; i++) {
+            double theta1 = (random.nextDouble() - 0.5) * 20;
+            double theta2 = i % 10 == 0 ? theta1 + 1e-9 : (random.nextDouble() - 0.5) * 20;
+            double omega1 = random.nextGaussian();
+            double omega2 = random.nextGaussian();
+
+            double[] expected = textbookAccelerations(arguments, theta1, theta2, omega1, omega2);
+            double energy = kernel.accelerationsAndEnergy(theta1, theta2, omega1, omega2, accelerations);
+
+            double scale = (arguments.mass1() + arguments.mass2()) * arguments.gravity() * arguments.length1();
+            assertEquals(expected[0], accelerations[0], 1e-12 * (1 + Math.abs(expected[0])), "alpha1 at " + i);
+            assertEquals(expected[1], accelerations[1], 1e-12 * (1 + Math.abs(expected[1])), "alpha2 at " + i);
+            assertEquals(kernel.energy(theta1, theta2, omega1, omega2), energy, 1e-12 * scale, "energy at " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Kernel: Lagrangian and energy should differ by twice the potential energy")
+    void testKernelLagrangian() {
+        LagrangeKernel kernel = lagrange.getKernel();
+        double theta1 = 2.0;
+        double theta2 = -1.0;
+
+        double potential = -(defaultArguments.mass1() + defaultArguments.mass2()) * defaultArguments.gravity()
+                * defaultArguments.length1() * Math.cos(theta1)
+                - defaultArguments.mass2() * defaultArguments.gravity() * defaultArguments.length2() * Math.cos(theta2);
+        assertEquals(2 * potential, kernel.energy(theta1, theta2, 0.3, -0.4) - kernel.lagrangian(theta1, theta2, 0.3, -0.4),
+                1e-9 * Math.abs(potential));
+    }
+
+    private static double[] textbookAccelerations(Arguments arguments, double theta1, double theta2,
+                                                  double omega1, double omega2) {
+        double m1 = arguments.mass1();
+        double m2 = arguments.mass2();
+        double l1 = arguments.length1();
+        double l2 = arguments.length2();
+        double g = arguments.gravity();
+        double delta = theta1 - theta2;
+        double denominator = 2 * m1 + m2 - m2 * Math.cos(2 * delta);
+
+        double alpha1 = (-g * (2 * m1 + m2) * Math.sin(theta1) - m2 * g * Math.sin(theta1 - 2 * theta2)
+                - 2 * Math.sin(delta) * m2 * (omega2 * omega2 * l2 + omega1 * omega1 * l1 * Math.cos(delta)))
+                / (l1 * denominator);
+        double alpha2 = 2 * Math.sin(delta) * (omega1 * omega1 * l1 * (m1 + m2) + g * (m1 + m2) * Math.cos(theta1)
+                + omega2 * omega2 * l2 * m2 * Math.cos(delta)) / (l2 * denominator);
+        return new double[]{alpha1, alpha2};
+    }
 }
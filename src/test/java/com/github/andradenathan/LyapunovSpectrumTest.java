@@ -0,0 +1,112 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Lyapunov Spectrum Tests")
+class LyapunovSpectrumTest {
+
+    private static final double TIME_STEP = Simulation.accurate().getTimeStep();
+
+    @Test
+    @DisplayName("Tangent vectors should follow the separation of a nearby trajectory")
+    void testTangentMatchesTwinTrajectory() {
+        Lagrange lagrange = new Lagrange(Arguments.usingDefault());
+        double epsilon = 1e-8;
+        double[] state = {2.0, -0.2, 0.0, 0.0};
+        double[] twin = {2.0 + epsilon, -0.2, 0.0, 0.0};
+        double[] tangent = {1.0, 0.0, 0.0, 0.0};
+
+        for (int step = 0; step < 2000; step++) {
+            lagrange.integrate(state, tangent, 1, TIME_STEP);
+            lagrange.integrate(twin, TIME_STEP);
+        }
+
+        for (int i = 0; i < 4; i++) {
+            double separation = (twin[i] - state[i]) / epsilon;
+            assertEquals(separation, tangent[i], 1e-3 * Math.abs(separation) + 1e-6, "component " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Chaotic motion should have a positive maximal exponent and a symmetric spectrum")
+    void testChaoticSpectrum() {
+        LyapunovResult result = new LyapunovSpectrum(Arguments.usingDefault(), TIME_STEP, 4)
+                .compute(Speed.usingAngles(120, -10), 2000.0);
+
+        double[] exponents = result.exponents();
+        assertTrue(result.maximal() > 0.01, "Maximal exponent " + result.maximal());
+        for (int i = 1; i < exponents.length; i++) {
+            assertTrue(exponents[i] <= exponents[i - 1], "Exponents should be sorted: " + result);
+        }
+        // A finite-time estimate of a chaotic run depends on rounding: starts 1e-8° apart pair up to within
+        // 0.2% to 5% of the maximal exponent.
+        assertEquals(0.0, exponents[0] + exponents[3], 0.05 * exponents[0], "Symplectic pairs: " + result);
+        assertEquals(0.0, result.sum(), 0.02 * exponents[0], "Conservative system: " + result);
+    }
+
+    @Test
+    @DisplayName("Small oscillations should have a maximal exponent close to zero")
+    void testRegularMotion() {
+        LyapunovResult chaotic = new LyapunovSpectrum(Arguments.usingDefault(), TIME_STEP, 1)
+                .compute(Speed.usingAngles(120, -10), 2000.0);
+        LyapunovResult regular = new LyapunovSpectrum(Arguments.usingDefault(), TIME_STEP, 1)
+                .compute(Speed.usingAngles(5, 5), 2000.0);
+
+        assertEquals(1, regular.exponents().length);
+        assertTrue(regular.maximal() < chaotic.maximal() / 10,
+                "Regular " + regular.maximal() + " vs chaotic " + chaotic.maximal());
+    }
+
+    @Test
+    @DisplayName("Batch should report every configuration once")
+    void testBatchStreamsAllResults() throws InterruptedException {
+        List<Arguments> batch = List.of(
+                Arguments.usingDefault(),
+                new Arguments(9.81, 5.0, 100.0, 10.0, 150.0),
+                new Arguments(9.81, 10.0, 150.0, 1.0, 50.0));
+        List<LyapunovResult> results = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            new LyapunovBatch(TIME_STEP, 2, Speed.usingAngles(120, -10), 50.0, executor).run(batch, results::add);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(3, results.size());
+        for (Arguments arguments : batch) {
+            assertTrue(results.stream().anyMatch(result -> result.arguments().equals(arguments)),
+                    "Missing result for " + arguments);
+        }
+    }
+
+    @Test
+    @DisplayName("Batch should reject bad settings up front and rethrow a failed computation unwrapped")
+    void testBatchFailures() {
+        Speed speed = Speed.usingAngles(120, -10);
+        assertThrows(IllegalArgumentException.class, () -> new LyapunovBatch(TIME_STEP, 5, speed, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new LyapunovBatch(TIME_STEP, 0, speed, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new LyapunovBatch(TIME_STEP, 2, speed, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new LyapunovBatch(0.0, 2, speed, 1.0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            LyapunovBatch lyapunov = new LyapunovBatch(TIME_STEP, 2, speed, 1.0, executor);
+            // A missing parameter set fails inside the task, which must surface as its own exception.
+            assertThrows(NullPointerException.class,
+                    () -> lyapunov.run(Arrays.asList(Arguments.usingDefault(), null), result -> {
+                    }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Parameter Sweep Tests")
+class ParameterSweepTest {
+
+    @Test
+    @DisplayName("Parse lists, ranges and defaults from a sweep file")
+    void testParseSweepFile(@TempDir Path tempDir) throws IOException {
+        Path sweepFile = tempDir.resolve("sweep.txt");
+        Files.writeString(sweepFile, """
+                # masses and angles
+                m1=5, 10, 20
+                theta1=-180:180:0.5
+                theta2 = 0:1:0.1
+                dt=0.01
+                L2=abc
+                """);
+
+        ParameterSweep sweep = SweepFileParser.fromFile(sweepFile.toString());
+
+        assertEquals(3, sweep.getAxis("m1").size());
+        assertEquals(721, sweep.getAxis("theta1").size());
+        assertEquals(11, sweep.getAxis("theta2").size());
+        assertEquals(1.0, sweep.getAxis("theta2").get(10), 1e-12);
+        assertEquals(150.0, sweep.getAxis("L2").get(0), 0.001); // default
+        assertEquals(3L * 721 * 11, sweep.size());
+    }
+
+    @Test
+    @DisplayName("Lines with a zero time step or non-positive masses, lengths or gravity should be rejected")
+    void testRejectInvalidValues(@TempDir Path tempDir) throws IOException {
+        Path sweepFile = tempDir.resolve("sweep.txt");
+        Files.writeString(sweepFile, """
+                dt=0:0.02:0.01
+                m1=10, 0
+                L2=-150
+                g=0
+                theta1=-10:10:10
+                """);
+
+        PrintStream err = System.err;
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        ParameterSweep sweep;
+        try {
+            System.setErr(new PrintStream(messages, true, StandardCharsets.UTF_8));
+            sweep = SweepFileParser.fromFile(sweepFile.toString());
+        } finally {
+            System.setErr(err);
+        }
+
+        String output = messages.toString(StandardCharsets.UTF_8);
+        for (String line : new String[]{"dt=0:0.02:0.01", "m1=10, 0", "L2=-150", "g=0"}) {
+            assertTrue(output.contains("Valor inválido na linha: " + line), "Should report " + line);
+        }
+        assertEquals(Simulation.faster().getTimeStep(), sweep.getAxis("dt").get(0)); // default
+        assertEquals(1, sweep.getAxis("m1").size());
+        assertEquals(3, sweep.getAxis("theta1").size());
+
+        SweepAxis one = SweepAxis.of(1.0);
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSweep(one, one, one, one, one, one, one,
+                SweepAxis.of(0.01, -0.01)));
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSweep(one, one, one, one, one,
+                SweepAxis.of(Double.NaN), one, one));
+    }
+
+    @Test
+    @DisplayName("Jobs should be decoded from their index with dt varying fastest")
+    void testJobIndexing() {
+        SweepAxis one = SweepAxis.of(1.0);
+        ParameterSweep sweep = new ParameterSweep(SweepAxis.of(9.81, 1.62), one, one, one, one,
+                SweepAxis.range(0, 90, 45), one, SweepAxis.of(0.1, 0.01));
+
+        assertEquals(12, sweep.size());
+        SweepJob job = sweep.job(11);
+        assertEquals(1.62, job.arguments().gravity());
+        assertEquals(90.0, job.theta1());
+        assertEquals(0.01, job.timeStep());
+
+        job = sweep.job(2);
+        assertEquals(9.81, job.arguments().gravity());
+        assertEquals(45.0, job.theta1());
+        assertEquals(0.1, job.timeStep());
+    }
+
+    @Test
+    @DisplayName("Sweeps larger than memory could hold should still index lazily")
+    void testHugeSweep() {
+        SweepAxis thousand = SweepAxis.range(1, 1000, 1);
+        ParameterSweep sweep = new ParameterSweep(thousand, thousand, thousand, thousand, thousand,
+                thousand, SweepAxis.of(0), SweepAxis.of(0.01));
+
+        assertEquals(1_000_000_000_000_000_000L, sweep.size());
+        assertEquals(1000.0, sweep.job(sweep.size() - 1).arguments().gravity());
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSweep(thousand, thousand, thousand,
+                thousand, thousand, thousand, thousand, thousand));
+    }
+
+    @Test
+    @DisplayName("Every job should run exactly once and report flips and energy error")
+    void testRunVisitsEveryJob() {
+        SweepAxis one = SweepAxis.of(Arguments.usingDefault().mass1());
+        ParameterSweep sweep = new ParameterSweep(SweepAxis.of(9.81), one, SweepAxis.of(150.0), one,
+                SweepAxis.of(150.0), SweepAxis.of(5, 170, 179), SweepAxis.range(0, 20, 10), SweepAxis.of(0.01));
+        SweepRunner runner = new SweepRunner(Simulation.accurate().withIntegrator(IntegratorType.RK4), 60.0,
+                new ForkJoinPool(4));
+
+        BitSet seen = new BitSet();
+        SweepResult[] results = new SweepResult[(int) sweep.size()];
+        runner.run(sweep, result -> {
+            int index = (int) result.job().index();
+            assertFalse(seen.get(index), "job " + index + " ran twice");
+            seen.set(index);
+            results[index] = result;
+        });
+
+        assertEquals(sweep.size(), seen.cardinality());
+        assertEquals(0, results[0].flips(), "5° from rest cannot flip");
+        assertTrue(results[8].flips() > 0, "179° from rest should flip within a minute");
+        for (SweepResult result : results) {
+            assertEquals(6000, result.steps());
+            assertTrue(result.maxEnergyError() < 1e-3, "energy error " + result.maxEnergyError());
+            assertEquals(SweepResult.HEADER.split(",").length, result.toRow().split(",", -1).length);
+        }
+    }
+
+    @Test
+    @DisplayName("A job whose integrator throws should become a failed row without stopping the sweep")
+    void testFailedJob() {
+        SweepAxis one = SweepAxis.of(1.0);
+        ParameterSweep sweep = new ParameterSweep(SweepAxis.of(9.81, 1e300), one, one, one, one,
+                SweepAxis.of(90), SweepAxis.of(0), SweepAxis.of(0.01));
+        SweepRunner runner = new SweepRunner(Simulation.usingDefault().withIntegrator(IntegratorType.ADAPTIVE), 1.0,
+                new ForkJoinPool(2));
+
+        SweepResult[] results = new SweepResult[(int) sweep.size()];
+        runner.run(sweep, result -> results[(int) result.job().index()] = result);
+
+        assertFalse(results[0].isFailed());
+        assertEquals(100, results[0].steps());
+
+        SweepResult failed = results[1];
+        assertTrue(failed.isFailed());
+        assertTrue(failed.error().startsWith("IllegalStateException: Adaptive step"), failed.error());
+        assertTrue(Double.isNaN(failed.maxEnergyError()));
+        assertTrue(Double.isNaN(failed.finalSpeed().getTheta1()));
+
+        String row = failed.toRow();
+        assertTrue(row.endsWith(",\"" + failed.error() + "\""), row);
+        assertTrue(row.contains(",NaN,NaN,NaN,NaN,NaN,"), row);
+    }
+}
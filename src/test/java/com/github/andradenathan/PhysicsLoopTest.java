@@ -0,0 +1,156 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Physics Loop Tests")
+class PhysicsLoopTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    @DisplayName("One second of wall time should run stepsPerFrame steps for every display frame")
+    void testFixedStepsPerFrame() {
+        Simulation simulation = Simulation.usingDefault();
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), simulation, Speed.usingDefault(), START);
+
+        for (int millis = 1; millis <= 1000; millis += 7) {
+            loop.advance(START + millis * 1_000_000L);
+        }
+        loop.advance(START + 1_000_000_000L);
+
+        long expectedSteps = (long) PhysicsLoop.FRAMES_PER_SECOND * simulation.getStepsPerFrame();
+        assertEquals(expectedSteps, loop.getSteps());
+        assertEquals(expectedSteps * simulation.getTimeStep(), loop.getSimulationTime(), 1e-9);
+
+        synchronized (loop.getTrajectory()) {
+            assertEquals(PhysicsLoop.FRAMES_PER_SECOND, loop.getTrajectory().size(), "One trail point per frame");
+        }
+    }
+
+    @Test
+    @DisplayName("Steps should match the headless engine regardless of how wall time is sliced")
+    void testMatchesEngine() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate();
+        Speed initialSpeed = Speed.usingAngles(120, -10);
+        PhysicsLoop loop = new PhysicsLoop(arguments, simulation, initialSpeed, START);
+
+        loop.advance(START + 3 * PhysicsLoop.FRAME_NANOS);
+        loop.advance(START + 7 * PhysicsLoop.FRAME_NANOS);
+
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, initialSpeed);
+        engine.step(7L * simulation.getStepsPerFrame());
+
+        Speed speed = new Speed(0, 0, 0, 0);
+        loop.interpolate(speed, START + 8 * PhysicsLoop.FRAME_NANOS);
+        assertEquals(engine.getSteps(), loop.getSteps());
+        assertEquals(engine.getSpeed().getTheta1(), speed.getTheta1(), 1e-12);
+        assertEquals(engine.getSpeed().getOmega2(), speed.getOmega2(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Rendering between steps should interpolate the last two states")
+    void testInterpolation() {
+        Simulation simulation = new Simulation(0.01, 1, 100, 400, 350);
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), simulation, Speed.usingAngles(120, -10), START);
+
+        loop.advance(START + 2 * PhysicsLoop.FRAME_NANOS);
+        Speed previous = new Speed(0, 0, 0, 0);
+        loop.interpolate(previous, START + 2 * PhysicsLoop.FRAME_NANOS);
+        Speed current = new Speed(0, 0, 0, 0);
+        loop.interpolate(current, START + 3 * PhysicsLoop.FRAME_NANOS);
+        Speed halfway = new Speed(0, 0, 0, 0);
+        loop.interpolate(halfway, START + 2 * PhysicsLoop.FRAME_NANOS + PhysicsLoop.FRAME_NANOS / 2);
+
+        SimulationEngine engine =
+                new SimulationEngine(Arguments.usingDefault(), simulation, Speed.usingAngles(120, -10));
+        engine.step();
+        assertEquals(engine.getSpeed().getTheta1(), previous.getTheta1(), 1e-12, "Rendering lags one step behind the physics");
+        engine.step();
+        assertEquals(engine.getSpeed().getTheta1(), current.getTheta1(), 1e-12);
+        assertEquals((previous.getTheta1() + current.getTheta1()) / 2, halfway.getTheta1(), 1e-9);
+        assertEquals((previous.getOmega1() + current.getOmega1()) / 2, halfway.getOmega1(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Paused loop should not advance and should not catch up on resume")
+    void testPause() {
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), Simulation.usingDefault(),
+                Speed.usingDefault(), START);
+
+        loop.setPaused(true);
+        loop.advance(START + 500_000_000L);
+        assertEquals(0, loop.getSteps());
+
+        loop.setPaused(false);
+        loop.advance(START + 500_000_000L + PhysicsLoop.FRAME_NANOS);
+        assertEquals(Simulation.usingDefault().getStepsPerFrame(), loop.getSteps());
+    }
+
+    @Test
+    @DisplayName("Physics thread should keep simulation time in step with wall time")
+    void testThreadTracksWallTime() throws InterruptedException {
+        Simulation simulation = Simulation.usingDefault();
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), simulation, Speed.usingDefault());
+
+        long start = System.nanoTime();
+        loop.start();
+        Thread.sleep(300);
+        loop.stop();
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        double expected = wallSeconds * PhysicsLoop.FRAMES_PER_SECOND * simulation.getStepsPerFrame()
+                * simulation.getTimeStep();
+        assertTrue(loop.getSimulationTime() > 0.5 * expected && loop.getSimulationTime() <= expected * 1.05,
+                "Simulated " + loop.getSimulationTime() + "s, expected about " + expected + "s");
+    }
+
+    @Test
+    @DisplayName("Time scale should multiply the step rate and decimate the trail")
+    void testTimeScale() {
+        Simulation simulation = Simulation.usingDefault();
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), simulation, Speed.usingDefault(), START);
+        loop.setTimeScale(100);
+
+        for (int frame = 1; frame <= PhysicsLoop.FRAMES_PER_SECOND; frame++) {
+            loop.advance(START + frame * PhysicsLoop.FRAME_NANOS);
+        }
+
+        assertEquals(100L * PhysicsLoop.FRAMES_PER_SECOND * simulation.getStepsPerFrame(), loop.getSteps());
+        synchronized (loop.getTrajectory()) {
+            int points = loop.getTrajectory().size();
+            assertTrue(points > 0 && points <= PhysicsLoop.FRAMES_PER_SECOND * PhysicsLoop.MAX_TRAIL_POINTS_PER_FRAME,
+                    "Trail points: " + points);
+        }
+    }
+
+    @Test
+    @DisplayName("Time scale should be clamped to the supported range")
+    void testTimeScaleRange() {
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), Simulation.usingDefault(), Speed.usingDefault());
+
+        loop.setTimeScale(5000);
+        assertEquals(PhysicsLoop.MAX_TIME_SCALE, loop.getTimeScale());
+        loop.setTimeScale(0.1);
+        assertEquals(PhysicsLoop.MIN_TIME_SCALE, loop.getTimeScale());
+    }
+
+    @Test
+    @DisplayName("Falling behind should drop the backlog and report the achieved time scale")
+    void testAchievedTimeScaleWhenBehind() {
+        Simulation simulation = Simulation.usingDefault();
+        PhysicsLoop loop = new PhysicsLoop(Arguments.usingDefault(), simulation, Speed.usingDefault(), START);
+        loop.setTimeScale(10);
+
+        loop.advance(START + 2_000_000_000L);
+
+        double steps = loop.getSteps();
+        double requestedSteps = 2.0 * PhysicsLoop.FRAMES_PER_SECOND * simulation.getStepsPerFrame() * 10;
+        assertTrue(steps < requestedSteps / 4, "Backlog should be capped: " + steps);
+        assertEquals(10 * steps / requestedSteps, loop.getAchievedTimeScale(), 1e-6);
+        assertEquals(10, loop.getTimeScale());
+    }
+}
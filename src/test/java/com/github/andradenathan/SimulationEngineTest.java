@@ -0,0 +1,59 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Headless Simulation Engine Tests")
+class SimulationEngineTest {
+
+    @Test
+    @DisplayName("Engine steps should match direct Lagrange integration")
+    void testMatchesLagrangeIntegration() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate();
+        Speed initialSpeed = new Speed(Math.PI / 3, Math.PI / 4, 0.0, 0.0);
+
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, initialSpeed);
+        engine.step(500);
+
+        Lagrange lagrange = new Lagrange(arguments);
+        Speed expected = initialSpeed.copy();
+        for (int i = 0; i < 500; i++) {
+            lagrange.integrate(expected, simulation.getTimeStep());
+        }
+
+        assertEquals(expected.getTheta1(), engine.getSpeed().getTheta1(), 1e-12);
+        assertEquals(expected.getTheta2(), engine.getSpeed().getTheta2(), 1e-12);
+        assertEquals(expected.getOmega1(), engine.getSpeed().getOmega1(), 1e-12);
+        assertEquals(expected.getOmega2(), engine.getSpeed().getOmega2(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Engine should not mutate the initial speed")
+    void testInitialSpeedUntouched() {
+        Speed initialSpeed = Speed.usingDefault();
+        SimulationEngine engine = new SimulationEngine(Arguments.usingDefault(), Simulation.faster(), initialSpeed);
+
+        engine.step(100);
+
+        assertEquals(Math.PI / 2, initialSpeed.getTheta1(), 0.0);
+        assertEquals(0.0, initialSpeed.getOmega1(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Report should count steps and simulated time")
+    void testReport() {
+        Simulation simulation = Simulation.usingDefault();
+        SimulationEngine engine = new SimulationEngine(Arguments.usingDefault(), simulation, Speed.usingDefault());
+
+        SimulationReport report = engine.run(1000);
+
+        assertEquals(1000, report.steps());
+        assertEquals(1000, engine.getSteps());
+        assertEquals(1000 * simulation.getTimeStep(), report.simulationTime(), 1e-9);
+        assertTrue(Double.isFinite(report.energy()), "Energy should be finite");
+        assertTrue(report.stepsPerSecond() >= 0, "Throughput should not be negative");
+    }
+}
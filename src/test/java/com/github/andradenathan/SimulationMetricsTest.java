@@ -0,0 +1,89 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Simulation Metrics Tests")
+class SimulationMetricsTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Histogram buckets should bound their values within one eighth")
+    void testBuckets() {
+        for (long nanos = 0; nanos < 1_000_000_000L; nanos = nanos * 3 / 2 + 1) {
+            int bucket = SimulationMetrics.bucket(nanos);
+            long upper = SimulationMetrics.upperBound(bucket);
+            assertTrue(upper >= nanos, nanos + " ns above bucket bound " + upper);
+            assertTrue(upper <= nanos + nanos / 8, nanos + " ns far below bucket bound " + upper);
+            assertEquals(bucket, SimulationMetrics.bucket(upper));
+        }
+        assertTrue(SimulationMetrics.bucket(Long.MAX_VALUE) >= 0);
+    }
+
+    @Test
+    @DisplayName("Paint time percentiles should follow the recorded distribution")
+    void testPaintPercentiles() {
+        SimulationMetrics metrics = new SimulationMetrics(Arguments.usingDefault(), new Trajectory(10));
+        for (int i = 1; i <= 1000; i++) {
+            metrics.recordPaint(i * 1_000L);
+        }
+
+        assertEquals(1000, metrics.getFrames());
+        assertEquals(0.5, metrics.getPaintTimeP50Millis(), 0.5 / 8);
+        assertEquals(0.99, metrics.getPaintTimeP99Millis(), 0.99 / 8);
+        assertEquals(1.0, metrics.getPaintTimeMaxMillis(), 1e-12);
+
+        metrics.resetStatistics();
+        assertEquals(0.0, metrics.getPaintTimeP95Millis());
+    }
+
+    @Test
+    @DisplayName("The physics loop should publish its steps and energy drift")
+    void testPhysicsLoopMetrics() {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.usingDefault();
+        PhysicsLoop loop = new PhysicsLoop(arguments, simulation, Speed.usingAngles(120, -10), START);
+        SimulationMetrics metrics = new SimulationMetrics(arguments, loop.getTrajectory());
+        loop.setMetrics(metrics);
+
+        assertEquals(0.0, metrics.getEnergyDrift());
+        loop.advance(START + PhysicsLoop.FRAME_NANOS * 30);
+
+        assertEquals(loop.getSteps(), metrics.getSteps());
+        synchronized (loop.getTrajectory()) {
+            assertEquals(loop.getTrajectory().size(), metrics.getTrajectorySize());
+        }
+        assertTrue(metrics.getTrajectorySize() > 0);
+        assertNotEquals(0.0, metrics.getEnergyDrift(), "Euler drifts");
+        assertTrue(Math.abs(metrics.getEnergyDrift()) < 0.1, "drift " + metrics.getEnergyDrift());
+
+        loop.reset(Speed.usingAngles(120, -10));
+        assertEquals(0.0, metrics.getEnergyDrift());
+    }
+
+    @Test
+    @DisplayName("Metrics should be readable through the platform MBean server")
+    void testRegistration() throws JMException {
+        SimulationMetrics metrics = new SimulationMetrics(Arguments.usingDefault(), new Trajectory(10));
+        metrics.register();
+        metrics.register();
+        metrics.recordSteps(42);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SimulationMetrics.OBJECT_NAME);
+        try {
+            assertEquals(42L, server.getAttribute(name, "Steps"));
+            assertInstanceOf(Double.class, server.getAttribute(name, "AllocationRateMegabytesPerSecond"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
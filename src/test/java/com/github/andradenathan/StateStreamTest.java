@@ -0,0 +1,150 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compressed State Stream Tests")
+class StateStreamTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Bit fields of every width should read back as written")
+    void testBitRoundTrip() {
+        Random random = new Random(7);
+        int fields = 10_000;
+        long[] values = new long[fields];
+        int[] widths = new int[fields];
+
+        BitWriter writer = new BitWriter(16);
+        for (int i = 0; i < fields; i++) {
+            widths[i] = 1 + random.nextInt(64);
+            values[i] = widths[i] == 64 ? random.nextLong() : random.nextLong() & ((1L << widths[i]) - 1);
+            writer.write(values[i], widths[i]);
+        }
+        int length = writer.finish();
+
+        byte[] bytes = new byte[length + BitReader.PADDING];
+        System.arraycopy(writer.bytes(), 0, bytes, 0, length);
+        BitReader reader = new BitReader();
+        reader.reset(bytes);
+        for (int i = 0; i < fields; i++) {
+            assertEquals(values[i], reader.read(widths[i]), "field " + i + " of " + widths[i] + " bits");
+        }
+    }
+
+    @Test
+    @DisplayName("A simulated run should round-trip bit for bit across blocks")
+    void testSimulationRoundTrip() throws IOException {
+        Arguments arguments = Arguments.usingDefault();
+        Simulation simulation = Simulation.accurate().withIntegrator(IntegratorType.RK4);
+        int records = 3 * StateStreamWriter.BLOCK_RECORDS + 123;
+        Speed[] expected = new Speed[records];
+
+        Path file = directory.resolve("run.dpss");
+        SimulationEngine engine = new SimulationEngine(arguments, simulation, Speed.usingAngles(120, -10));
+        try (StateStreamWriter writer = new StateStreamWriter(file, arguments, simulation)) {
+            for (int i = 0; i < records; i++) {
+                expected[i] = engine.getSpeed().copy();
+                writer.append(engine.getSteps(), engine.getSpeed());
+                engine.step();
+            }
+        }
+
+        try (StateStreamReader reader = new StateStreamReader(file)) {
+            assertEquals(records, reader.size());
+            assertEquals(arguments, reader.getArguments());
+            assertEquals(IntegratorType.RK4, reader.getSimulation().getIntegrator());
+
+            Speed speed = new Speed(0, 0, 0, 0);
+            for (int i = 0; i < records; i++) {
+                reader.read(i, speed);
+                assertEquals(i, reader.getStep(i));
+                assertBitwiseEquals(expected[i], speed, i);
+            }
+
+            reader.read(5, speed);
+            assertBitwiseEquals(expected[5], speed, 5);
+            assertTrue(Files.size(file) < records * 40L / 2, "compressed to " + Files.size(file) + " bytes");
+        }
+    }
+
+    @Test
+    @DisplayName("Irregular steps and special values should survive encoding")
+    void testIrregularRecords() throws IOException {
+        double[] specials = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE, -1e300, 1e-300};
+        Random random = new Random(11);
+        int records = StateStreamWriter.BLOCK_RECORDS + 500;
+        long[] steps = new long[records];
+        double[][] values = new double[records][4];
+
+        Path file = directory.resolve("irregular.dpss");
+        try (StateStreamWriter writer = new StateStreamWriter(file, Arguments.usingDefault(), Simulation.faster())) {
+            long step = -5;
+            for (int i = 0; i < records; i++) {
+                step += switch (i % 5) {
+                    case 0 -> 1;
+                    case 1 -> random.nextInt(100);
+                    case 2 -> random.nextInt(5000);
+                    case 3 -> 1L << 40;
+                    default -> 0;
+                };
+                steps[i] = step;
+                for (int component = 0; component < 4; component++) {
+                    values[i][component] = random.nextInt(4) == 0
+                            ? specials[random.nextInt(specials.length)]
+                            : random.nextGaussian();
+                }
+                writer.append(step, values[i][0], values[i][1], values[i][2], values[i][3]);
+            }
+        }
+
+        try (StateStreamReader reader = new StateStreamReader(file)) {
+            Speed speed = new Speed(0, 0, 0, 0);
+            for (int i = records - 1; i >= 0; i -= 7) {
+                reader.read(i, speed);
+                assertEquals(steps[i], reader.getStep(i));
+                assertBitwiseEquals(new Speed(values[i][0], values[i][1], values[i][2], values[i][3]), speed, i);
+            }
+
+            assertEquals(0, reader.floorRecord(Long.MIN_VALUE));
+            assertEquals(records - 1, reader.floorRecord(Long.MAX_VALUE));
+            int probe = StateStreamWriter.BLOCK_RECORDS + 3;
+            assertEquals(steps[probe] == steps[probe + 1] ? probe + 1 : probe, reader.floorRecord(steps[probe]));
+        }
+    }
+
+    @Test
+    @DisplayName("A stream that was never closed should be rejected")
+    void testRejectsUnclosedStream() throws IOException {
+        Path file = directory.resolve("open.dpss");
+        StateStreamWriter writer = new StateStreamWriter(file, Arguments.usingDefault(), Simulation.faster());
+        writer.append(0, Speed.usingDefault());
+
+        assertThrows(IOException.class, () -> new StateStreamReader(file));
+        writer.close();
+        try (StateStreamReader reader = new StateStreamReader(file)) {
+            assertEquals(1, reader.size());
+        }
+    }
+
+    private static void assertBitwiseEquals(Speed expected, Speed actual, int record) {
+        assertEquals(Double.doubleToRawLongBits(expected.getTheta1()), Double.doubleToRawLongBits(actual.getTheta1()),
+                "theta1 of record " + record);
+        assertEquals(Double.doubleToRawLongBits(expected.getTheta2()), Double.doubleToRawLongBits(actual.getTheta2()),
+                "theta2 of record " + record);
+        assertEquals(Double.doubleToRawLongBits(expected.getOmega1()), Double.doubleToRawLongBits(actual.getOmega1()),
+                "omega1 of record " + record);
+        assertEquals(Double.doubleToRawLongBits(expected.getOmega2()), Double.doubleToRawLongBits(actual.getOmega2()),
+                "omega2 of record " + record);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.andradenathan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Trajectory Ring Buffer Tests")
+class TrajectoryTest {
+
+    @Test
+    @DisplayName("Points should be read back oldest first before the buffer fills")
+    void testAddBelowCapacity() {
+        Trajectory trajectory = new Trajectory(5);
+        trajectory.addPoint(1, 10);
+        trajectory.addPoint(2, 20);
+        trajectory.addPoint(3, 30);
+
+        assertEquals(3, trajectory.size());
+        assertEquals(1, trajectory.getX(0));
+        assertEquals(30, trajectory.getY(2));
+    }
+
+    @Test
+    @DisplayName("A full buffer should evict the oldest point on every add")
+    void testEvictsOldest() {
+        Trajectory trajectory = new Trajectory(4);
+        for (int i = 0; i < 11; i++) {
+            trajectory.addPoint(i, -i);
+        }
+
+        assertEquals(4, trajectory.size());
+        for (int index = 0; index < 4; index++) {
+            assertEquals(7 + index, trajectory.getX(index), "x at " + index);
+            assertEquals(-(7 + index), trajectory.getY(index), "y at " + index);
+        }
+    }
+
+    @Test
+    @DisplayName("Clear should empty the buffer and restart from index zero")
+    void testClear() {
+        Trajectory trajectory = new Trajectory(3);
+        for (int i = 0; i < 5; i++) {
+            trajectory.addPoint(i, i);
+        }
+
+        trajectory.clear();
+        trajectory.addPoint(42, 43);
+
+        assertEquals(1, trajectory.size());
+        assertEquals(42, trajectory.getX(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> trajectory.getX(1));
+    }
+
+    @Test
+    @DisplayName("Invalid capacity should be rejected")
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new Trajectory(0));
+    }
+
+    @Test
+    @DisplayName("Adding to a full million point trail should not allocate")
+    void testAddDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Allocation counters are not available on this JVM");
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        Trajectory trajectory = new Trajectory(1_000_000);
+        int points = 3_000_000;
+        for (int i = 0; i < points; i++) {
+            trajectory.addPoint(i, i);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < points; i++) {
+            trajectory.addPoint(i, i);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, allocated / points, "addPoint allocated " + allocated + " bytes over " + points + " points");
+        assertEquals(points - 1, trajectory.getX(trajectory.size() - 1));
+    }
+}
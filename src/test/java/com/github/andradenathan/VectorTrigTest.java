@@ -0,0 +1,68 @@
+package com.github.andradenathan;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Vectorized Trigonometry Tests")
+class VectorTrigTest {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double MAX_ERROR = 5e-16;
+
+    @Test
+    @DisplayName("sin/cos should stay within the documented error on a dense grid")
+    void testDenseGrid() {
+        assertMaxError(sample(-4 * Math.PI, 4 * Math.PI, 1 << 16));
+    }
+
+    @Test
+    @DisplayName("sin/cos should stay within the documented error for large spinning angles")
+    void testLargeArguments() {
+        Random random = new Random(42);
+        double[] values = new double[1 << 14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (random.nextDouble() * 2 - 1) * 1e6;
+        }
+        assertMaxError(values);
+    }
+
+    @Test
+    @DisplayName("Quadrant boundaries should produce exact signs")
+    void testQuadrantBoundaries() {
+        double[] values = new double[SPECIES.length() * 4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i - values.length / 2) * Math.PI / 2;
+        }
+        assertMaxError(values);
+    }
+
+    private static void assertMaxError(double[] values) {
+        double[] sines = new double[values.length];
+        double[] cosines = new double[values.length];
+
+        for (int i = 0; i < values.length; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, values, i);
+            VectorTrig.sin(x).intoArray(sines, i);
+            VectorTrig.cos(x).intoArray(cosines, i);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Math.sin(values[i]), sines[i], MAX_ERROR, "sin(" + values[i] + ")");
+            assertEquals(Math.cos(values[i]), cosines[i], MAX_ERROR, "cos(" + values[i] + ")");
+        }
+    }
+
+    private static double[] sample(double from, double to, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = from + (to - from) * i / (count - 1);
+        }
+        return values;
+    }
+}